@@ -0,0 +1,93 @@
+package goes.iga;
+import java.io.File;
+import java.io.IOException;
+/**
+ *
+ * This class gives the instances used by the benchmarks: the shipped instances (I_50 to I_200),
+ * read from the directory given by the property iga.instances ("instances" by default), and
+ * synthetic instances (S_ followed by the number of requirements) generated with a fixed seed.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+final class BenchmarkInstances {
+	/**
+	 * Seed of the synthetic instances and of the random individuals
+	 */
+	static final long SEED = 42;
+	/**
+	 * Max number of individuals of the solvers, the default population (twice the number of
+	 * requirements) of the synthetic instances would not fit in memory
+	 */
+	static final int MAX_NUMBER_OF_INDIVIDUALS = 1000;
+	/**
+	 * Number of random individuals the benchmarks cycle through
+	 */
+	static final int NUMBER_OF_RANDOM_INDIVIDUALS = 64;
+	/**
+	 * Utility class
+	 */
+	private BenchmarkInstances() {
+	}
+	/**
+	 *
+	 * @param name
+	 * @return The instance with the given name
+	 * @throws IOException
+	 */
+	static NrpInstance getInstance(String name) throws IOException {
+		if(name.startsWith("S_")){
+			InstanceGenerator generator = new InstanceGenerator(5, Integer.parseInt(name.substring(2)), 5, 5);
+
+			generator.setSeed(SEED);
+			return generator.generate();
+		}
+		return NrpInstance.read(new File(System.getProperty("iga.instances", "instances"), name + ".txt"));
+	}
+	/**
+	 *
+	 * @param instance
+	 * @return A solver of the instance, with a simulator whose profile has a target for it
+	 * @throws Exception
+	 */
+	static InteractiveGeneticAlgorithm getSolver(NrpInstance instance) throws Exception {
+		HumanSimulator simulator = new HumanSimulator();
+		InteractiveGeneticAlgorithm solver = new InteractiveGeneticAlgorithm(instance, "MLP", simulator);
+		int numberOfRequirements = instance.getNumberOfRequirements();
+
+		simulator.setHumanSimulatorProfile(numberOfRequirements % 50 == 0 && numberOfRequirements <= 200 ? "MANUALLY" : "RANDOM");
+		solver.setNumberOfIndividuals(getNumberOfIndividuals(numberOfRequirements));
+
+		return solver;
+	}
+	/**
+	 *
+	 * @param numberOfRequirements
+	 * @return The number of individuals of the solvers given by {@link #getSolver(NrpInstance)}
+	 */
+	static int getNumberOfIndividuals(int numberOfRequirements) {
+		return Math.min(2 * numberOfRequirements, MAX_NUMBER_OF_INDIVIDUALS);
+	}
+	/**
+	 *
+	 * @param numberOfIndividuals
+	 * @param numberOfRequirements
+	 * @return Individuals including each requirement with probability 0.5
+	 */
+	static long[][] getRandomIndividuals(int numberOfIndividuals, int numberOfRequirements) {
+		RandomStream random = new RandomStream(SEED);
+		long[][] individuals = new long[numberOfIndividuals][];
+
+		for(int i = 0; i <= individuals.length - 1; i++){
+			individuals[i] = Genotype.newIndividual(numberOfRequirements);
+			for(int j = 0; j <= numberOfRequirements - 1; j++){
+				if(random.nextBoolean()){
+					Genotype.include(individuals[i], j);
+				}
+			}
+		}
+
+		return individuals;
+	}
+}
@@ -0,0 +1,30 @@
+package goes.iga;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+/**
+ *
+ * Runs the benchmarks with the GC profiler, which reports the allocation rate (gc.alloc.rate)
+ * and the bytes allocated by operation (gc.alloc.rate.norm) next to the throughput.
+ * The usual JMH options are accepted, e.g. a regular expression selecting the benchmarks, or
+ * "-p instance=I_50,I_200". Usage:
+ *
+ * mvn -P benchmarks package
+ * java -jar target/benchmarks.jar [JMH options]
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class BenchmarkRunner {
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,161 @@
+package goes.iga;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ *
+ * Benchmarks of the genetic operators and of the objective evaluation of the solver, on a
+ * population created and evaluated as in the first generation (score only, so no learning model).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneticOperatorsBenchmark {
+	/**
+	 * Instance, see {@link BenchmarkInstances#getInstance(String)}
+	 */
+	@Param({"I_50", "I_100", "I_150", "I_200", "S_10000", "S_100000"})
+	public String instance;
+
+	private InteractiveGeneticAlgorithm solver;
+	/**
+	 * Number of individuals of the solver
+	 */
+	private int numberOfIndividuals;
+	/**
+	 * Individuals whose score and cost are computed
+	 */
+	private long[][] individuals;
+	/**
+	 * Individual with all the requirements, above any budget, and its score and cost
+	 */
+	private long[] fullIndividual;
+	private double fullIndividualScore;
+	private double fullIndividualCost;
+	/**
+	 * Individual repaired by the benchmark, and its score and cost
+	 */
+	private long[][] repairedIndividuals;
+	private double[] repairedScores;
+	private double[] repairedCosts;
+	/**
+	 * Position of the next operation
+	 */
+	private int position;
+	/**
+	 * Index of the next individual whose score or cost is computed
+	 */
+	private int individualIndex;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		NrpInstance nrpInstance = BenchmarkInstances.getInstance(instance);
+		int numberOfRequirements = nrpInstance.getNumberOfRequirements();
+
+		solver = BenchmarkInstances.getSolver(nrpInstance);
+		solver.setParameters(new double[] {1, 0});
+		solver.initialize();
+		solver.calculateFitnessPopulation();
+		numberOfIndividuals = BenchmarkInstances.getNumberOfIndividuals(numberOfRequirements);
+
+		individuals = BenchmarkInstances.getRandomIndividuals(BenchmarkInstances.NUMBER_OF_RANDOM_INDIVIDUALS, numberOfRequirements);
+
+		fullIndividual = Genotype.newIndividual(numberOfRequirements);
+		for(int i = 0; i <= numberOfRequirements - 1; i++){
+			Genotype.include(fullIndividual, i);
+		}
+		fullIndividualScore = solver.getIndividualScore(fullIndividual);
+		fullIndividualCost = solver.calculateCost(fullIndividual);
+
+		repairedIndividuals = new long[][] {Genotype.newIndividual(numberOfRequirements)};
+		repairedScores = new double[1];
+		repairedCosts = new double[1];
+	}
+
+	/**
+	 *
+	 * @return The next even position of the population
+	 */
+	private int nextPosition() {
+		position = (position + 2) % numberOfIndividuals;
+		return position;
+	}
+
+	/**
+	 *
+	 * @return The next individual whose score or cost is computed
+	 */
+	private long[] nextIndividual() {
+		individualIndex = (individualIndex + 1) % individuals.length;
+		return individuals[individualIndex];
+	}
+
+	@Benchmark
+	public int tournamentSelection() {
+		return solver.tournamentSelection();
+	}
+
+	@Benchmark
+	public void crossover() {
+		int childrenPosition = nextPosition();
+
+		solver.crossover(childrenPosition, childrenPosition + 1, childrenPosition);
+	}
+
+	@Benchmark
+	public void mutate() {
+		solver.mutate(nextPosition());
+	}
+
+	/**
+	 * Repair of an individual with all the requirements, down to the budget
+	 * @return
+	 */
+	@Benchmark
+	public long[] repair() {
+		Genotype.copy(fullIndividual, repairedIndividuals[0]);
+		repairedScores[0] = fullIndividualScore;
+		repairedCosts[0] = fullIndividualCost;
+
+		solver.repair(repairedIndividuals, repairedScores, repairedCosts, 0);
+
+		return repairedIndividuals[0];
+	}
+
+	/**
+	 * Fitness of the whole population
+	 * @throws Exception
+	 */
+	@Benchmark
+	public void calculateFitnessPopulation() throws Exception {
+		solver.calculateFitnessPopulation();
+	}
+
+	@Benchmark
+	public double getIndividualScore() {
+		return solver.getIndividualScore(nextIndividual());
+	}
+
+	@Benchmark
+	public double calculateCost() {
+		return solver.calculateCost(nextIndividual());
+	}
+}
@@ -0,0 +1,104 @@
+package goes.iga;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ *
+ * Benchmarks of the subjective evaluation given by the simulator, for packed solutions and
+ * for solutions as vectors of integers.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HumanSimulatorBenchmark {
+	/**
+	 * Instance, see {@link BenchmarkInstances#getInstance(String)}
+	 */
+	@Param({"I_50", "I_100", "I_150", "I_200", "S_10000", "S_100000"})
+	public String instance;
+
+	private HumanSimulator simulator;
+	/**
+	 * Individuals evaluated, packed and as vectors of integers
+	 */
+	private long[][] individuals;
+	private int[][] unpackedIndividuals;
+	/**
+	 * Evaluations of the batch benchmarks
+	 */
+	private int[] evaluations;
+	/**
+	 * Index of the next individual
+	 */
+	private int individualIndex;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		NrpInstance nrpInstance = BenchmarkInstances.getInstance(instance);
+		int numberOfRequirements = nrpInstance.getNumberOfRequirements();
+
+		simulator = BenchmarkInstances.getSolver(nrpInstance).getSimulator();
+		individuals = BenchmarkInstances.getRandomIndividuals(BenchmarkInstances.NUMBER_OF_RANDOM_INDIVIDUALS, numberOfRequirements);
+		unpackedIndividuals = new int[individuals.length][];
+		evaluations = new int[individuals.length];
+
+		for(int i = 0; i <= individuals.length - 1; i++){
+			unpackedIndividuals[i] = Genotype.toIntArray(individuals[i], numberOfRequirements);
+		}
+	}
+
+	/**
+	 *
+	 * @return The index of the next individual
+	 */
+	private int nextIndividual() {
+		individualIndex = (individualIndex + 1) % individuals.length;
+		return individualIndex;
+	}
+
+	@Benchmark
+	public int getHumanEvaluation() {
+		return simulator.getHumanEvaluation(individuals[nextIndividual()]);
+	}
+
+	@Benchmark
+	public int getHumanEvaluationUnpacked() {
+		return simulator.getHumanEvaluation(unpackedIndividuals[nextIndividual()]);
+	}
+
+	/**
+	 * Evaluation of all the individuals in one call
+	 * @return
+	 */
+	@Benchmark
+	public int[] getHumanEvaluations() {
+		simulator.getHumanEvaluations(individuals, evaluations);
+
+		return evaluations;
+	}
+
+	@Benchmark
+	public int[] getHumanEvaluationsUnpacked() {
+		simulator.getHumanEvaluations(unpackedIndividuals, evaluations);
+
+		return evaluations;
+	}
+}
@@ -0,0 +1,149 @@
+package goes.iga;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.core.Instance;
+/**
+ *
+ * Benchmarks of the data set and of the learning models, trained, as in the solver, with the
+ * subjective evaluations of 100 solutions. The Weka multilayer perceptron is trained for a single
+ * epoch, which does not change the cost of a prediction. The instance with 100000 requirements is
+ * not used: its hidden layer (50000 nodes) would have 5 billion weights.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SurrogateBenchmark {
+	/**
+	 * Number of solutions evaluated to train the model
+	 */
+	private static final int NUMBER_OF_SUBJECTIVE_EVALUATIONS = 100;
+	/**
+	 * Instance, see {@link BenchmarkInstances#getInstance(String)}
+	 */
+	@Param({"I_50", "I_100", "I_150", "I_200", "S_10000"})
+	public String instance;
+	/**
+	 * Learning model, see {@link InteractiveGeneticAlgorithm#getSurrogate(String, int)}
+	 */
+	@Param({"MLP", "RIDGE", "KNN", "NN"})
+	public String surrogate;
+
+	private DataSet dataSet;
+	private Surrogate model;
+	private PopulationEvaluator evaluator;
+	/**
+	 * Individuals inserted and predicted, and their subjective evaluations
+	 */
+	private long[][] individuals;
+	private double[] evaluations;
+	private double[] predictions;
+	/**
+	 * Index of the next individual
+	 */
+	private int individualIndex;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		NrpInstance nrpInstance = BenchmarkInstances.getInstance(instance);
+		int numberOfRequirements = nrpInstance.getNumberOfRequirements();
+		HumanSimulator simulator = BenchmarkInstances.getSolver(nrpInstance).getSimulator();
+		int numberOfIndividuals = BenchmarkInstances.getNumberOfIndividuals(numberOfRequirements);
+
+		individuals = BenchmarkInstances.getRandomIndividuals(numberOfIndividuals, numberOfRequirements);
+		evaluations = new double[individuals.length];
+		predictions = new double[individuals.length];
+		dataSet = new DataSet(NUMBER_OF_SUBJECTIVE_EVALUATIONS, numberOfRequirements);
+
+		for(int i = 0; i <= individuals.length - 1; i++){
+			evaluations[i] = simulator.getHumanEvaluation(individuals[i]);
+			if(i < NUMBER_OF_SUBJECTIVE_EVALUATIONS){
+				dataSet.insert(individuals[i], evaluations[i]);
+			}
+		}
+
+		model = InteractiveGeneticAlgorithm.getSurrogate(surrogate, numberOfRequirements);
+		if(model instanceof WekaSurrogate){
+			((MultilayerPerceptron) ((WekaSurrogate) model).getClassifier()).setTrainingTime(1);
+		}
+		model.train(individuals, evaluations, NUMBER_OF_SUBJECTIVE_EVALUATIONS);
+
+		evaluator = new PopulationEvaluator(1);
+		evaluator.setModel(model);
+	}
+
+	/**
+	 *
+	 * @return The index of the next individual
+	 */
+	private int nextIndividual() {
+		individualIndex = (individualIndex + 1) % individuals.length;
+		return individualIndex;
+	}
+
+	/**
+	 * Insertion of an evaluated solution, which is removed afterwards so the data set keeps its size
+	 * @return
+	 */
+	@Benchmark
+	public int insert() {
+		int index = nextIndividual();
+
+		dataSet.insert(individuals[index], evaluations[index]);
+		dataSet.getDataSet().delete(dataSet.getDataSet().numInstances() - 1);
+
+		return dataSet.getDataSet().numInstances();
+	}
+
+	@Benchmark
+	public Instance getInstance() {
+		return dataSet.getInstance(individuals[nextIndividual()]);
+	}
+
+	@Benchmark
+	public double predict() throws Exception {
+		return model.predict(individuals[nextIndividual()]);
+	}
+	/**
+	 * Training with the subjective evaluations, as done by the solver when they are all given
+	 * @return
+	 * @throws Exception
+	 */
+	@Benchmark
+	public Surrogate train() throws Exception {
+		model.train(individuals, evaluations, NUMBER_OF_SUBJECTIVE_EVALUATIONS);
+
+		return model;
+	}
+	/**
+	 * Prediction of a whole population, as done by the solver every generation
+	 * @return
+	 * @throws Exception
+	 */
+	@Benchmark
+	public double[] predictPopulation() throws Exception {
+		evaluator.predict(individuals, predictions);
+
+		return predictions;
+	}
+}
@@ -0,0 +1,150 @@
+package goes.iga;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ *
+ * This class asks the human to evaluate solutions without blocking the solver: a request returns
+ * at once and the answer is queued when it arrives, to be taken by the solver with {@link #poll()}
+ * in a later generation. The answers are given by a {@link HumanSimulator} after a latency drawn
+ * uniformly between a minimum and a maximum (0 by default), so the delays of a real human can be
+ * reproduced in tests. A deployment with a real human overrides {@link #evaluate(long[])} and may
+ * block in it, since it runs on the thread of this evaluator.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class AsynchronousHumanEvaluator implements AutoCloseable {
+	/**
+	 * A solution evaluated by the human
+	 */
+	public static final class Answer {
+		private final long[] individual;
+		private final int evaluation;
+
+		Answer(long[] individual, int evaluation) {
+			this.individual = individual;
+			this.evaluation = evaluation;
+		}
+		/**
+		 *
+		 * @return The packed solution (see {@link Genotype})
+		 */
+		public long[] getIndividual() {
+			return individual;
+		}
+		/**
+		 *
+		 * @return The subjective evaluation
+		 */
+		public int getEvaluation() {
+			return evaluation;
+		}
+	}
+	/**
+	 * Gives the answers, owned by the thread of this evaluator
+	 */
+	private final HumanSimulator simulator;
+	/**
+	 * Thread which waits the latency and evaluates the solutions
+	 */
+	private final ScheduledExecutorService executor;
+	/**
+	 * Answers not taken yet by the solver
+	 */
+	private final ConcurrentLinkedQueue<Answer> answers = new ConcurrentLinkedQueue<Answer>();
+	/**
+	 * Number of requests not answered yet
+	 */
+	private final AtomicInteger numberOfPendingRequests = new AtomicInteger();
+	/**
+	 * Latency of an answer, in milliseconds
+	 */
+	private long minimumLatency;
+	private long maximumLatency;
+	/**
+	 * Draws the latencies, used by the thread making the requests
+	 */
+	private RandomStream random = new RandomStream();
+	/**
+	 * Constructor
+	 * @param simulator copied, so it can be used by the thread of this evaluator
+	 */
+	public AsynchronousHumanEvaluator(HumanSimulator simulator) {
+		this.simulator = new HumanSimulator(simulator);
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "human-evaluator");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	/**
+	 * Set the latency of the answers, drawn uniformly between the given values
+	 * @param minimumLatency in milliseconds
+	 * @param maximumLatency in milliseconds
+	 */
+	public void setLatency(long minimumLatency, long maximumLatency) {
+		if(minimumLatency < 0 || maximumLatency < minimumLatency){
+			throw new IllegalArgumentException("Invalid latency: " + minimumLatency + " to " + maximumLatency);
+		}
+		this.minimumLatency = minimumLatency;
+		this.maximumLatency = maximumLatency;
+	}
+	/**
+	 * Set the seed of the latencies
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		random = new RandomStream(seed);
+	}
+	/**
+	 * Ask the human to evaluate a solution, returning at once
+	 * @param individual packed solution, copied
+	 */
+	public void request(long[] individual) {
+		long[] copy = individual.clone();
+		long latency = minimumLatency + (long) (random.nextDouble() * (maximumLatency - minimumLatency));
+
+		numberOfPendingRequests.incrementAndGet();
+		executor.schedule(() -> {
+			try{
+				answers.add(new Answer(copy, evaluate(copy)));
+			}
+			finally{
+				numberOfPendingRequests.decrementAndGet();
+			}
+		}, latency, TimeUnit.MILLISECONDS);
+	}
+	/**
+	 * Evaluate a solution, called by the thread of this evaluator
+	 * @param individual
+	 * @return The subjective evaluation
+	 */
+	protected int evaluate(long[] individual) {
+		return simulator.getHumanEvaluation(individual);
+	}
+	/**
+	 *
+	 * @return The oldest answer not taken yet, or null if there is none (does not block)
+	 */
+	public Answer poll() {
+		return answers.poll();
+	}
+	/**
+	 *
+	 * @return The number of requests not answered yet
+	 */
+	public int getNumberOfPendingRequests() {
+		return numberOfPendingRequests.get();
+	}
+	/**
+	 * Discard the pending requests and stop the thread of this evaluator
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,125 @@
+package goes.iga;
+/**
+ *
+ * Surrogate which chooses, at each training, one of several candidate models. Each candidate is
+ * trained with 4 of each 5 samples and tested with the others; the candidate with the lowest mean
+ * absolute error is chosen (the first one on ties), and trained again with all the samples.
+ * Updates and predictions are delegated to the chosen candidate, which also tells whether an update
+ * costs less than a training.
+ * The choice depends only on the samples, never on measured times, so the same seed chooses the
+ * same candidates: the candidates too slow for the size of the instance are left out by the caller,
+ * from times measured offline (see {@link InteractiveGeneticAlgorithm#getSurrogate(String, int)}).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class AutoSurrogate implements Surrogate {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * One of each HOLDOUT_PERIOD samples is used to test the candidates
+	 */
+	private static final int HOLDOUT_PERIOD = 5;
+	/**
+	 * Candidate models
+	 */
+	private final Surrogate[] candidates;
+	/**
+	 * Chosen candidate
+	 */
+	private Surrogate selected;
+	/**
+	 * Constructor
+	 * @param candidates the first one is used until there are samples enough to compare them
+	 */
+	public AutoSurrogate(Surrogate[] candidates) {
+		if(candidates.length == 0){
+			throw new IllegalArgumentException("No candidate models");
+		}
+		this.candidates = candidates;
+		this.selected = candidates[0];
+	}
+
+	@Override
+	public void train(long[][] individuals, double[] evaluations, int numberOfSamples) throws Exception {
+		int numberOfTests = numberOfSamples / HOLDOUT_PERIOD;
+
+		if(candidates.length > 1 && numberOfTests > 0){
+			long[][] trainingIndividuals = new long[numberOfSamples - numberOfTests][];
+			double[] trainingEvaluations = new double[numberOfSamples - numberOfTests];
+			long[][] testIndividuals = new long[numberOfTests][];
+			double[] testEvaluations = new double[numberOfTests];
+			int numberOfTraining = 0;
+			double bestError = Double.POSITIVE_INFINITY;
+
+			for(int i = 0; i <= numberOfSamples - 1; i++){
+				if(i % HOLDOUT_PERIOD == HOLDOUT_PERIOD - 1 && i / HOLDOUT_PERIOD < numberOfTests){
+					testIndividuals[i / HOLDOUT_PERIOD] = individuals[i];
+					testEvaluations[i / HOLDOUT_PERIOD] = evaluations[i];
+				}
+				else{
+					trainingIndividuals[numberOfTraining] = individuals[i];
+					trainingEvaluations[numberOfTraining] = evaluations[i];
+					numberOfTraining++;
+				}
+			}
+
+			selected = candidates[0];
+			for(Surrogate candidate : candidates){
+				double error = 0;
+
+				candidate.train(trainingIndividuals, trainingEvaluations, numberOfTraining);
+				for(int i = 0; i <= numberOfTests - 1; i++){
+					error += Math.abs(candidate.predict(testIndividuals[i]) - testEvaluations[i]);
+				}
+				error /= numberOfTests;
+
+				if(error < bestError){
+					bestError = error;
+					selected = candidate;
+				}
+			}
+		}
+
+		selected.train(individuals, evaluations, numberOfSamples);
+	}
+
+	@Override
+	public void update(long[] individual, double evaluation) throws Exception {
+		selected.update(individual, evaluation);
+	}
+
+	@Override
+	public boolean isUpdateable() {
+		return selected.isUpdateable();
+	}
+
+	@Override
+	public double predict(long[] individual) throws Exception {
+		return selected.predict(individual);
+	}
+
+	@Override
+	public Surrogate copy() throws Exception {
+		Surrogate[] copies = new Surrogate[candidates.length];
+		AutoSurrogate copy;
+
+		for(int i = 0; i <= candidates.length - 1; i++){
+			copies[i] = candidates[i].copy();
+		}
+		copy = new AutoSurrogate(copies);
+		for(int i = 0; i <= candidates.length - 1; i++){
+			if(candidates[i] == selected){
+				copy.selected = copies[i];
+			}
+		}
+		return copy;
+	}
+	/**
+	 *
+	 * @return The chosen candidate
+	 */
+	public Surrogate getSelected() {
+		return selected;
+	}
+}
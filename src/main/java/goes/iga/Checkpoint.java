@@ -0,0 +1,253 @@
+package goes.iga;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+ *
+ * This class writes the checkpoints of a solver (see {@link InteractiveGeneticAlgorithm#setCheckpoint(File, int)})
+ * on a background thread. The solver encodes its state in a buffer owned by the checkpoint, and
+ * its model serialized (only when it changes), and the background thread writes them to a temporary
+ * file then moves it over the checkpoint, so the checkpoint file is always complete. While a checkpoint is being written the
+ * next one is skipped, so the solver never waits.
+ *
+ * The file starts with the magic number "IGAC" and a version, followed by the length of the state
+ * and of the serialized model (int, 0 if there is no model), the state and the model.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+final class Checkpoint implements AutoCloseable {
+	/**
+	 * "IGAC"
+	 */
+	private static final int MAGIC = 0x49474143;
+	/**
+	 * Version of the format
+	 */
+	private static final int VERSION = 2;
+	private final File file;
+	private final ExecutorService writer;
+	/**
+	 * State encoded by the solver, reused by the next checkpoints
+	 */
+	private ByteBuffer state;
+	/**
+	 * Write in progress, null if none
+	 */
+	private Future<?> pending;
+	/**
+	 * Constructor
+	 * @param file
+	 */
+	Checkpoint(File file) {
+		this.file = file;
+		this.writer = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "checkpoint-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	/**
+	 *
+	 * @param capacity
+	 * @return An empty buffer to encode the state, or null if the last checkpoint is still being written
+	 * @throws IOException if the last checkpoint could not be written
+	 */
+	ByteBuffer getBuffer(int capacity) throws IOException {
+		if(pending != null){
+			if(!pending.isDone()){
+				return null;
+			}
+			waitPending();
+		}
+		if(state == null || state.capacity() < capacity){
+			state = ByteBuffer.allocate(capacity);
+		}
+		state.clear();
+		return state;
+	}
+	/**
+	 * Write the state encoded in the buffer given by {@link #getBuffer(int)} and the model, in background
+	 * @param serializedModel not changed afterwards, empty if the model is not trained
+	 */
+	void write(byte[] serializedModel) {
+		ByteBuffer state = this.state;
+
+		state.flip();
+		pending = writer.submit(() -> {
+			write(state, serializedModel);
+			return null;
+		});
+	}
+	/**
+	 * Wait for the checkpoint being written
+	 * @throws IOException if it could not be written
+	 */
+	private void waitPending() throws IOException {
+		try{
+			pending.get();
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing the checkpoint", e);
+		}
+		catch(ExecutionException e){
+			throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+		}
+		finally{
+			pending = null;
+		}
+	}
+	/**
+	 * Write the checkpoint file
+	 * @param state
+	 * @param serializedModel
+	 * @throws IOException
+	 */
+	private void write(ByteBuffer state, byte[] serializedModel) throws IOException {
+		File temporaryFile = new File(file.getPath() + ".tmp");
+
+		try(FileChannel channel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			ByteBuffer header = ByteBuffer.allocate(16);
+			ByteBuffer[] buffers = {header, state.duplicate(), ByteBuffer.wrap(serializedModel)};
+			long remaining = header.capacity() + state.remaining() + serializedModel.length;
+
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(state.remaining());
+			header.putInt(serializedModel.length);
+			header.flip();
+			while(remaining > 0){
+				remaining -= channel.write(buffers);
+			}
+			channel.force(false);
+		}
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	/**
+	 * Wait for the checkpoint being written and stop the background thread
+	 * @throws IOException if it could not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try{
+			if(pending != null){
+				waitPending();
+			}
+		}
+		finally{
+			writer.shutdown();
+		}
+	}
+	/**
+	 * Read a checkpoint file
+	 * @param file
+	 * @param model output, model[0] is the model of the checkpoint, null if it has none
+	 * @return The state encoded by the solver
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	static ByteBuffer read(File file, Surrogate[] model) throws IOException, ClassNotFoundException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+			ByteBuffer header = ByteBuffer.allocate(16);
+
+			readFully(channel, header);
+			if(header.getInt() != MAGIC){
+				throw new IOException("Not a checkpoint: " + file);
+			}
+			int version = header.getInt();
+			if(version != VERSION){
+				throw new IOException("Unsupported checkpoint version: " + version);
+			}
+
+			ByteBuffer state = ByteBuffer.allocate(header.getInt());
+			byte[] serializedModel = new byte[header.getInt()];
+			readFully(channel, state);
+			readFully(channel, ByteBuffer.wrap(serializedModel));
+
+			model[0] = serializedModel.length == 0 ? null : (Surrogate) deserialize(serializedModel);
+			return state;
+		}
+	}
+	/**
+	 *
+	 * @param individuals
+	 * @return The number of bytes of the solutions in a buffer
+	 */
+	static int getSize(long[][] individuals) {
+		return individuals.length == 0 ? 0 : 8 * individuals.length * individuals[0].length;
+	}
+	static void put(ByteBuffer buffer, long[][] individuals) {
+		for(int i = 0; i <= individuals.length - 1; i++){
+			buffer.asLongBuffer().put(individuals[i]);
+			buffer.position(buffer.position() + 8 * individuals[i].length);
+		}
+	}
+	static void put(ByteBuffer buffer, double[] values) {
+		buffer.asDoubleBuffer().put(values);
+		buffer.position(buffer.position() + 8 * values.length);
+	}
+	/**
+	 * Read solutions into the given ones, which have the number of words of the written ones
+	 * @param buffer
+	 * @param individuals
+	 */
+	static void get(ByteBuffer buffer, long[][] individuals) {
+		for(int i = 0; i <= individuals.length - 1; i++){
+			buffer.asLongBuffer().get(individuals[i]);
+			buffer.position(buffer.position() + 8 * individuals[i].length);
+		}
+	}
+	static void get(ByteBuffer buffer, double[] values) {
+		buffer.asDoubleBuffer().get(values);
+		buffer.position(buffer.position() + 8 * values.length);
+	}
+	/**
+	 *
+	 * @param object
+	 * @return The Java serialization of the object
+	 * @throws IOException
+	 */
+	static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try(ObjectOutputStream output = new ObjectOutputStream(bytes)){
+			output.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+	static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		try(ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))){
+			return input.readObject();
+		}
+	}
+	/**
+	 * Fill the buffer from the channel, and flip it
+	 * @param channel
+	 * @param buffer
+	 * @throws IOException
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()){
+			if(channel.read(buffer) < 0){
+				throw new EOFException("Unexpected end of checkpoint");
+			}
+		}
+		buffer.flip();
+	}
+}
@@ -1,5 +1,7 @@
 package goes.iga;
 
+import java.io.Serializable;
+
 import weka.core.*;
 
 /**
@@ -11,7 +13,8 @@ import weka.core.*;
  * @author --
  *
  */
-public class DataSet {
+public class DataSet implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	public Instances dataSet;
 	FastVector featureVector;
@@ -42,6 +45,15 @@ public class DataSet {
 		dataSet = new Instances ("trainingSet", featureVector, maxOfEvaluations);
 		dataSet.setClassIndex(numberOfRequirements);
 	}
+	/**
+	 * Copy Constructor, the solutions are copied
+	 * @param other
+	 */
+	public DataSet(DataSet other) {
+		this.numberOfRequirements = other.numberOfRequirements;
+		this.featureVector = other.featureVector;
+		this.dataSet = new Instances(other.dataSet);
+	}
 	/**
 	 * Method used to store a solution with its respective subjective evaluation
 	 * @param individual
@@ -55,6 +67,19 @@ public class DataSet {
 		aux.setValue((Attribute)featureVector.elementAt(numberOfRequirements), she);
 		dataSet.add(aux);
 	}
+	/**
+	 * Method used to store a packed solution (see {@link Genotype}) with its respective subjective evaluation
+	 * @param individual
+	 * @param she
+	 */
+	public void insert(long[] individual, double she) {
+		double[] values = new double[numberOfRequirements+1];
+		for (int i = 0; i < numberOfRequirements; i++) {
+			values[i] = Genotype.getValue(individual, i);
+		}
+		values[numberOfRequirements] = she;
+		dataSet.add(new DenseInstance(1.0, values));
+	}
 	/**
 	 *
 	 * @return A dataset used by Classifiers in WEKA
@@ -74,4 +99,44 @@ public class DataSet {
 		}
 		return instance;
 	}
+	/**
+	 *
+	 * @param individual packed solution (see {@link Genotype})
+	 * @return Convert a given solution in instance
+	 */
+	public Instance getInstance(long[] individual) {
+		ReusableInstance instance = new ReusableInstance(numberOfRequirements);
+		instance.load(individual);
+		return instance;
+	}
+	/**
+	 * Instance whose attribute values are overwritten in place with the values of a packed
+	 * solution, instead of allocating a new instance (and a new copy of the values on each
+	 * setValue) per prediction. The evaluation (class value) is missing.
+	 */
+	static class ReusableInstance extends DenseInstance {
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Stores the number of requirements
+		 */
+		private final int numberOfRequirements;
+		/**
+		 *
+		 * @param numberOfRequirements
+		 */
+		ReusableInstance(int numberOfRequirements) {
+			super(1.0, new double[numberOfRequirements+1]);
+			this.numberOfRequirements = numberOfRequirements;
+			m_AttValues[numberOfRequirements] = Utils.missingValue();
+		}
+		/**
+		 * Overwrite the attribute values with the given packed solution
+		 * @param individual
+		 */
+		void load(long[] individual) {
+			for (int i = 0; i < numberOfRequirements; i++) {
+				m_AttValues[i] = Genotype.getValue(individual, i);
+			}
+		}
+	}
 }
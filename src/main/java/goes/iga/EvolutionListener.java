@@ -0,0 +1,24 @@
+package goes.iga;
+/**
+ *
+ * Notified by the solver at the end of each generation, with its metrics, and at the end of
+ * each execution. The listener is called on the thread running the solver; a listener shared
+ * by several solvers must be thread-safe (see {@link HistogramRecorder}).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public interface EvolutionListener {
+	/**
+	 * Called at the end of each generation
+	 * @param metrics of the generation, reused by the solver so only valid during the call
+	 */
+	void generationCompleted(GenerationMetrics metrics);
+	/**
+	 * Called at the end of each execution
+	 * @param time of the execution, in nanoseconds
+	 */
+	default void solveCompleted(long time) {
+	}
+}
@@ -0,0 +1,372 @@
+package goes.iga;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ *
+ * This class runs the repeated executions of a set of experiments concurrently. Each execution
+ * builds its own solver and its own copy of the human simulator, so no state is shared among
+ * the executions, and runs on a bounded work-stealing pool. The results are returned in the
+ * order of the experiments and, inside each experiment, in the order of the executions.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class ExperimentScheduler {
+	/**
+	 * Notified each time an execution finishes
+	 */
+	public interface ProgressListener {
+		/**
+		 * Called on the thread of the execution which finished, so it must be thread-safe
+		 * @param completedRuns executions finished so far, of all the experiments
+		 * @param totalRuns executions of all the experiments
+		 * @param runsPerSecond throughput since the start of the run, in executions finished per second of wall-clock time
+		 */
+		void progress(int completedRuns, int totalRuns, double runsPerSecond);
+	}
+	/**
+	 * An instance solved with a given profile and a given parameter combination a number of times
+	 */
+	public static class Experiment {
+		/**
+		 * Instance file
+		 */
+		private final File instance;
+		/**
+		 * Learning model used by the solver
+		 */
+		private final String model;
+		/**
+		 * Simulator whose target solution is shared by all executions
+		 */
+		private final HumanSimulator simulator;
+		/**
+		 * Parameters alpha and beta
+		 */
+		private final double[] parameters;
+		/**
+		 * Number of executions
+		 */
+		private final int numberOfExecutions;
+		/**
+		 * Constructor
+		 * @param instance
+		 * @param model
+		 * @param simulator (see {@link ExperimentScheduler#createSimulator(File, String)})
+		 * @param parameters
+		 * @param numberOfExecutions
+		 */
+		public Experiment(File instance, String model, HumanSimulator simulator, double[] parameters, int numberOfExecutions) {
+			this.instance = instance;
+			this.model = model;
+			this.simulator = simulator;
+			this.parameters = parameters.clone();
+			this.numberOfExecutions = numberOfExecutions;
+		}
+		/**
+		 *
+		 * @return the instance file
+		 */
+		public File getInstance() {
+			return instance;
+		}
+		/**
+		 *
+		 * @return the learning model
+		 */
+		public String getModel() {
+			return model;
+		}
+		/**
+		 *
+		 * @return the simulator shared by the executions
+		 */
+		public HumanSimulator getSimulator() {
+			return simulator;
+		}
+		/**
+		 *
+		 * @return A Vector containing the parameters alpha and beta
+		 */
+		public double[] getParameters() {
+			return parameters.clone();
+		}
+		/**
+		 *
+		 * @return the number of executions
+		 */
+		public int getNumberOfExecutions() {
+			return numberOfExecutions;
+		}
+	}
+	/**
+	 * Maximum number of executions running at the same time
+	 */
+	private final int parallelism;
+	/**
+	 * Listener notified of the progress, may be null
+	 */
+	private ProgressListener progressListener;
+	/**
+	 * Listener given to the solver of each execution, may be null
+	 */
+	private EvolutionListener evolutionListener;
+	/**
+	 * Sink of the records of the generations and of the executions, may be null
+	 */
+	private ResultsSink resultsSink;
+	/**
+	 * Stream from which the stream of each execution is split, null if the executions are not seeded
+	 */
+	private RandomStream randomStream;
+	/**
+	 * Constructor
+	 * @param parallelism
+	 */
+	public ExperimentScheduler(int parallelism) {
+		if(parallelism < 1){
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+	/**
+	 *
+	 * @param progressListener
+	 */
+	public void setProgressListener(ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+	/**
+	 * Set the listener given to the solver of every execution, it must be thread-safe
+	 * (e.g. a {@link HistogramRecorder})
+	 * @param evolutionListener
+	 */
+	public void setEvolutionListener(EvolutionListener evolutionListener) {
+		this.evolutionListener = evolutionListener;
+	}
+	/**
+	 * Set the sink recording every generation and every execution, with the index of its experiment
+	 * and its index in the experiment
+	 * @param resultsSink
+	 */
+	public void setResultsSink(ResultsSink resultsSink) {
+		this.resultsSink = resultsSink;
+	}
+	/**
+	 * Set the seed of the executions: each one has its own random numbers stream split from it in
+	 * the order of the experiments and executions, so the results do not depend on the parallelism
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.randomStream = new RandomStream(seed);
+	}
+	/**
+	 * Build a simulator with the target solution of the given profile for the given instance
+	 * @param instance
+	 * @param profile
+	 * @return
+	 * @throws Exception
+	 */
+	public static HumanSimulator createSimulator(File instance, String profile) throws Exception {
+		return createSimulator(NrpInstance.read(instance), profile);
+	}
+	/**
+	 * Build a simulator with the target solution of the given profile for the given instance
+	 * @param instance
+	 * @param profile
+	 * @return
+	 * @throws Exception
+	 */
+	public static HumanSimulator createSimulator(NrpInstance instance, String profile) throws Exception {
+		HumanSimulator simulator = new HumanSimulator();
+
+		//The profiles use the requirements scores and costs
+		simulator.setScoreValues(instance.getRequirementsScore());
+		simulator.setCostValues(instance.getRequirementsCosts());
+		simulator.setHumanSimulatorProfile(profile);
+
+		return simulator;
+	}
+	/**
+	 * Run all executions of all experiments
+	 * @param experiments
+	 * @return For each experiment, the results of its executions
+	 * @throws Exception
+	 */
+	public ArrayList<ArrayList<HashMap<String, String>>> run(List<Experiment> experiments) throws Exception {
+		ArrayList<ArrayList<HashMap<String, String>>> results = new ArrayList<ArrayList<HashMap<String, String>>>();
+		List<List<Future<RunResult>>> futures = new ArrayList<List<Future<RunResult>>>();
+		Map<File, NrpInstance> instances = readInstances(experiments);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		AtomicInteger completedRuns = new AtomicInteger();
+		int totalRuns = getTotalRuns(experiments);
+		long start = System.nanoTime();
+
+		try{
+			for(int e = 0; e <= experiments.size() - 1; e++){
+				Experiment experiment = experiments.get(e);
+				List<Future<RunResult>> experimentFutures = new ArrayList<Future<RunResult>>();
+
+				for(int i = 0; i <= experiment.getNumberOfExecutions() - 1; i++){
+					experimentFutures.add(submit(pool, experiment, e, i, instances.get(experiment.getInstance()), completedRuns, totalRuns, start));
+				}
+				futures.add(experimentFutures);
+			}
+
+			for (List<Future<RunResult>> experimentFutures : futures) {
+				ArrayList<HashMap<String, String>> experimentResults = new ArrayList<HashMap<String, String>>();
+
+				for (Future<RunResult> future : experimentFutures) {
+					experimentResults.add(future.get().toMap());
+				}
+				results.add(experimentResults);
+			}
+		}
+		catch(ExecutionException e){
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+		finally{
+			pool.shutdownNow();
+		}
+
+		return results;
+	}
+	/**
+	 * Run all executions of all experiments, adding the results of each execution to the writer of
+	 * its experiment as soon as it and the previous executions finish. At most twice the parallelism
+	 * executions are submitted and not yet added, so the memory does not grow with the number of executions.
+	 * The results are added in the order of the executions, so the aggregates do not depend on the parallelism.
+	 * @param experiments
+	 * @param resultsWriters the writer of each experiment, in the same order
+	 * @throws Exception
+	 */
+	public void run(List<Experiment> experiments, List<ResultsWriter> resultsWriters) throws Exception {
+		if(resultsWriters.size() != experiments.size()){
+			throw new IllegalArgumentException("One results writer per experiment is needed: " + resultsWriters.size());
+		}
+		ArrayDeque<Future<RunResult>> futures = new ArrayDeque<Future<RunResult>>();
+		ArrayDeque<ResultsWriter> destinations = new ArrayDeque<ResultsWriter>();
+		Map<File, NrpInstance> instances = readInstances(experiments);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		AtomicInteger completedRuns = new AtomicInteger();
+		int totalRuns = getTotalRuns(experiments);
+		long start = System.nanoTime();
+
+		try{
+			for(int e = 0; e <= experiments.size() - 1; e++){
+				Experiment experiment = experiments.get(e);
+
+				for(int i = 0; i <= experiment.getNumberOfExecutions() - 1; i++){
+					if(futures.size() == 2 * parallelism){
+						destinations.poll().add(futures.poll().get());
+					}
+					futures.add(submit(pool, experiment, e, i, instances.get(experiment.getInstance()), completedRuns, totalRuns, start));
+					destinations.add(resultsWriters.get(e));
+				}
+			}
+
+			while(!futures.isEmpty()){
+				destinations.poll().add(futures.poll().get());
+			}
+		}
+		catch(ExecutionException e){
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+		finally{
+			pool.shutdownNow();
+		}
+	}
+	/**
+	 * Read each instance once, they are immutable and shared by the executions
+	 * @param experiments
+	 * @return The instance of each file
+	 * @throws Exception
+	 */
+	private static Map<File, NrpInstance> readInstances(List<Experiment> experiments) throws Exception {
+		Map<File, NrpInstance> instances = new HashMap<File, NrpInstance>();
+
+		for (Experiment experiment : experiments) {
+			if(!instances.containsKey(experiment.getInstance())){
+				instances.put(experiment.getInstance(), NrpInstance.read(experiment.getInstance()));
+			}
+		}
+		return instances;
+	}
+	private static int getTotalRuns(List<Experiment> experiments) {
+		int totalRuns = 0;
+
+		for (Experiment experiment : experiments) {
+			totalRuns += experiment.getNumberOfExecutions();
+		}
+		return totalRuns;
+	}
+	/**
+	 * Submit an execution, with the next stream split in the order of submission
+	 * @param pool
+	 * @param experiment
+	 * @param experimentIndex
+	 * @param execution index of the execution in the experiment
+	 * @param instance
+	 * @param completedRuns
+	 * @param totalRuns
+	 * @param start
+	 * @return
+	 */
+	private Future<RunResult> submit(ForkJoinPool pool, Experiment experiment, int experimentIndex, int execution,
+			NrpInstance instance, AtomicInteger completedRuns, int totalRuns, long start) {
+		RandomStream executionRandomStream = randomStream != null ? randomStream.split() : null;
+
+		return pool.submit(() -> {
+			RunResult result = execute(experiment, experimentIndex, execution, instance, executionRandomStream);
+			reportProgress(completedRuns.incrementAndGet(), totalRuns, start);
+			return result;
+		});
+	}
+	/**
+	 * Single execution with its own solver and simulator
+	 * @param experiment
+	 * @param experimentIndex
+	 * @param execution index of the execution in the experiment
+	 * @param instance
+	 * @param randomStream of the execution, null if it is not seeded
+	 * @return
+	 * @throws Exception
+	 */
+	private RunResult execute(Experiment experiment, int experimentIndex, int execution, NrpInstance instance,
+			RandomStream randomStream) throws Exception {
+		HumanSimulator simulator = new HumanSimulator(experiment.getSimulator());
+
+		try(InteractiveGeneticAlgorithm iga = new InteractiveGeneticAlgorithm(instance, experiment.getModel(), simulator)){
+			iga.setParameters(experiment.getParameters());
+			iga.setEvolutionListener(resultsSink != null ? resultsSink.getListener(iga, experimentIndex, execution, evolutionListener)
+					: evolutionListener);
+			if(randomStream != null){
+				iga.setRandomStream(randomStream);
+			}
+			iga.solve();
+
+			return iga.getRunResult();
+		}
+	}
+	/**
+	 *
+	 * @param completedRuns
+	 * @param totalRuns
+	 * @param start
+	 */
+	private void reportProgress(int completedRuns, int totalRuns, long start) {
+		if(progressListener != null){
+			double seconds = (System.nanoTime() - start) / 1e9;
+			progressListener.progress(completedRuns, totalRuns, completedRuns / seconds);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package goes.iga;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+/**
+ *
+ * This class stores the metrics of a generation of the solver: the time spent in each phase,
+ * the number of subjective evaluations, the number of solutions predicted by the learning model,
+ * the bytes allocated and the best and mean fitness of the evaluated population. The solver
+ * reuses the same object every generation.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class GenerationMetrics {
+	/**
+	 * Phases of a generation
+	 */
+	public enum Phase {
+		/**
+		 * Subjective evaluations by the human (simulator), stored in the data set
+		 */
+		HUMAN_EVALUATION,
+		/**
+		 * Training of the learning model
+		 */
+		TRAINING,
+		/**
+		 * Predictions of the learning model (surrogate inference)
+		 */
+		PREDICTION,
+		/**
+		 * Fitness of the population given the scores and the (subjective or predicted) evaluations
+		 */
+		FITNESS,
+		/**
+		 * Selection, crossover and mutation
+		 */
+		REPRODUCTION,
+		/**
+		 * Repair of the offspring
+		 */
+		REPAIR
+	}
+	/**
+	 * Gives the bytes allocated by a thread, null if not supported by the JVM
+	 */
+	private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+	/**
+	 * Stores the index of the generation, from 0
+	 */
+	private int generation;
+	/**
+	 * Stores the time spent in each phase, in nanoseconds
+	 */
+	private final long[] phaseTimes = new long[Phase.values().length];
+	/**
+	 * Stores the time of the generation, in nanoseconds
+	 */
+	private long generationTime;
+	/**
+	 * Stores the number of subjective evaluations
+	 */
+	private int humanEvaluations;
+	/**
+	 * Stores the number of predictions requested to the learning model
+	 */
+	private long predictions;
+	/**
+	 * Stores the number of solutions actually presented to the learning model
+	 * (the remaining ones were found in the cache of predictions)
+	 */
+	private long modelPredictions;
+	/**
+	 * Stores the bytes allocated by the thread running the solver, -1 if unknown
+	 */
+	private long allocatedBytes;
+	/**
+	 * Stores the best fitness of the evaluated population
+	 */
+	private double bestFitness;
+	/**
+	 * Stores the mean fitness of the evaluated population
+	 */
+	private double meanFitness;
+	/**
+	 *
+	 * @return the thread bean, if it gives the allocated bytes
+	 */
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		try{
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+			if(bean instanceof com.sun.management.ThreadMXBean
+					&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+					&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled()){
+				return (com.sun.management.ThreadMXBean) bean;
+			}
+		}
+		catch(LinkageError e){
+			//Not a HotSpot JVM
+		}
+		return null;
+	}
+	/**
+	 *
+	 * @return The bytes allocated so far by the current thread, -1 if unknown
+	 */
+	static long getCurrentThreadAllocatedBytes() {
+		return THREAD_BEAN != null ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+	}
+	/**
+	 * Clear the metrics for a new generation
+	 * @param generation
+	 */
+	void reset(int generation) {
+		this.generation = generation;
+		Arrays.fill(phaseTimes, 0);
+		generationTime = 0;
+		humanEvaluations = 0;
+		predictions = 0;
+		modelPredictions = 0;
+		allocatedBytes = -1;
+		bestFitness = 0;
+		meanFitness = 0;
+	}
+	/**
+	 * Add time to a phase
+	 * @param phase
+	 * @param time in nanoseconds
+	 */
+	void addPhaseTime(Phase phase, long time) {
+		phaseTimes[phase.ordinal()] += time;
+	}
+
+	void setGenerationTime(long generationTime) {
+		this.generationTime = generationTime;
+	}
+
+	void setHumanEvaluations(int humanEvaluations) {
+		this.humanEvaluations = humanEvaluations;
+	}
+
+	void setPredictions(long predictions, long modelPredictions) {
+		this.predictions = predictions;
+		this.modelPredictions = modelPredictions;
+	}
+
+	void setAllocatedBytes(long allocatedBytes) {
+		this.allocatedBytes = allocatedBytes;
+	}
+	/**
+	 * Set the best and mean of the given fitness values
+	 * @param fitnessValues
+	 */
+	void setFitness(double[] fitnessValues) {
+		double best = -Double.MAX_VALUE;
+		double sum = 0;
+
+		for(int i = 0; i <= fitnessValues.length - 1; i++){
+			best = Math.max(best, fitnessValues[i]);
+			sum += fitnessValues[i];
+		}
+
+		this.bestFitness = best;
+		this.meanFitness = sum / fitnessValues.length;
+	}
+	/**
+	 *
+	 * @return the index of the generation, from 0
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+	/**
+	 *
+	 * @param phase
+	 * @return the time spent in the phase, in nanoseconds
+	 */
+	public long getPhaseTime(Phase phase) {
+		return phaseTimes[phase.ordinal()];
+	}
+	/**
+	 *
+	 * @return the time of the generation, in nanoseconds
+	 */
+	public long getGenerationTime() {
+		return generationTime;
+	}
+	/**
+	 *
+	 * @return the number of subjective evaluations
+	 */
+	public int getHumanEvaluations() {
+		return humanEvaluations;
+	}
+	/**
+	 *
+	 * @return the number of predictions requested to the learning model
+	 */
+	public long getPredictions() {
+		return predictions;
+	}
+	/**
+	 *
+	 * @return the number of solutions presented to the learning model, the remaining
+	 * predictions were found in the cache
+	 */
+	public long getModelPredictions() {
+		return modelPredictions;
+	}
+	/**
+	 *
+	 * @return the bytes allocated by the thread running the solver (not by the workers of the
+	 * evaluator), -1 if the JVM does not give it
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+	/**
+	 *
+	 * @return the best fitness of the evaluated population
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+	/**
+	 *
+	 * @return the mean fitness of the evaluated population
+	 */
+	public double getMeanFitness() {
+		return meanFitness;
+	}
+}
@@ -0,0 +1,305 @@
+package goes.iga;
+import java.util.Arrays;
+/**
+ *
+ * This class gathers the operations over bit-packed individuals. An individual with n
+ * requirements is stored as ceil(n / 64) words, where the requirement i is the bit
+ * (i % 64) of the word (i / 64). Bits beyond the number of requirements are always zero.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public final class Genotype {
+	/**
+	 * Number of bits stored in each word
+	 */
+	public static final int WORD_SIZE = 64;
+	/**
+	 * Shift used to convert a requirement index in a word index
+	 */
+	private static final int WORD_SHIFT = 6;
+	/**
+	 * Utility class
+	 */
+	private Genotype() {
+	}
+	/**
+	 *
+	 * @param numberOfRequirements
+	 * @return The number of words needed to store an individual
+	 */
+	public static int getNumberOfWords(int numberOfRequirements){
+		return (numberOfRequirements + WORD_SIZE - 1) >>> WORD_SHIFT;
+	}
+	/**
+	 *
+	 * @param numberOfRequirements
+	 * @return An empty individual
+	 */
+	public static long[] newIndividual(int numberOfRequirements){
+		return new long[getNumberOfWords(numberOfRequirements)];
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param requirement
+	 * @return True if the requirement is included in the individual
+	 */
+	public static boolean isIncluded(long[] individual, int requirement){
+		return (individual[requirement >>> WORD_SHIFT] & (1L << requirement)) != 0;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param requirement
+	 * @return 1 if the requirement is included in the individual, else 0
+	 */
+	public static int getValue(long[] individual, int requirement){
+		return (int) ((individual[requirement >>> WORD_SHIFT] >>> requirement) & 1L);
+	}
+	/**
+	 * Include a requirement in the individual
+	 * @param individual
+	 * @param requirement
+	 */
+	public static void include(long[] individual, int requirement){
+		individual[requirement >>> WORD_SHIFT] |= 1L << requirement;
+	}
+	/**
+	 * Remove a requirement from the individual
+	 * @param individual
+	 * @param requirement
+	 */
+	public static void exclude(long[] individual, int requirement){
+		individual[requirement >>> WORD_SHIFT] &= ~(1L << requirement);
+	}
+	/**
+	 * Flip a requirement of the individual
+	 * @param individual
+	 * @param requirement
+	 */
+	public static void flip(long[] individual, int requirement){
+		individual[requirement >>> WORD_SHIFT] ^= 1L << requirement;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @return The number of requirements included in the individual
+	 */
+	public static int getNumberOfIncludedRequirements(long[] individual){
+		int numberOfIncludedRequirements = 0;
+
+		for(int i = 0; i <= individual.length - 1; i++){
+			numberOfIncludedRequirements += Long.bitCount(individual[i]);
+		}
+
+		return numberOfIncludedRequirements;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param rank from 0 to the number of included requirements - 1
+	 * @return The included requirement with the given rank, in increasing order of requirement
+	 */
+	public static int getIncludedRequirement(long[] individual, int rank){
+		for(int i = 0; i <= individual.length - 1; i++){
+			long word = individual[i];
+			int bitCount = Long.bitCount(word);
+
+			if(rank < bitCount){
+				for(; rank > 0; rank--){
+					word &= word - 1;
+				}
+				return (i << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+			}
+			rank -= bitCount;
+		}
+		throw new IndexOutOfBoundsException("Rank " + rank + " beyond the included requirements");
+	}
+	/**
+	 * Sum of the values of the included requirements, in increasing order of requirement
+	 * @param individual
+	 * @param values
+	 * @return
+	 */
+	public static double getWeightedSum(long[] individual, double[] values){
+		double sum = 0;
+
+		for(int i = 0; i <= individual.length - 1; i++){
+			long word = individual[i];
+
+			while(word != 0){
+				sum += values[(i << WORD_SHIFT) + Long.numberOfTrailingZeros(word)];
+				word &= word - 1;
+			}
+		}
+
+		return sum;
+	}
+	/**
+	 * Sum of the values of the included requirements from (inclusive) to (exclusive)
+	 * @param individual
+	 * @param values
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	public static double getWeightedSum(long[] individual, double[] values, int from, int to){
+		double sum = 0;
+
+		if(from >= to){
+			return sum;
+		}
+
+		int firstWord = from >>> WORD_SHIFT;
+		int lastWord = (to - 1) >>> WORD_SHIFT;
+
+		for(int i = firstWord; i <= lastWord; i++){
+			long word = individual[i];
+
+			if(i == firstWord){
+				word &= -1L << from;
+			}
+			if(i == lastWord){
+				word &= headMask(to - 1);
+			}
+
+			while(word != 0){
+				sum += values[(i << WORD_SHIFT) + Long.numberOfTrailingZeros(word)];
+				word &= word - 1;
+			}
+		}
+
+		return sum;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param other
+	 * @param numberOfRequirements
+	 * @return The number of requirements with the same value in both individuals
+	 */
+	public static int getNumberOfSimilarities(long[] individual, long[] other, int numberOfRequirements){
+		int numberOfDifferences = 0;
+
+		for(int i = 0; i <= individual.length - 1; i++){
+			numberOfDifferences += Long.bitCount(individual[i] ^ other[i]);
+		}
+
+		return numberOfRequirements - numberOfDifferences;
+	}
+	/**
+	 * Single point crossover at word level: requirements from 0 to pointCut come from
+	 * the first source, the remaining ones come from the second source.
+	 * @param first
+	 * @param second
+	 * @param pointCut
+	 * @param destination
+	 */
+	public static void splice(long[] first, long[] second, int pointCut, long[] destination){
+		int cutWord = pointCut >>> WORD_SHIFT;
+		long headMask = headMask(pointCut);
+
+		System.arraycopy(first, 0, destination, 0, cutWord);
+		destination[cutWord] = (first[cutWord] & headMask) | (second[cutWord] & ~headMask);
+		System.arraycopy(second, cutWord + 1, destination, cutWord + 1, destination.length - cutWord - 1);
+	}
+	/**
+	 *
+	 * @param pointCut
+	 * @return Mask of the bits from 0 to pointCut (inclusive) inside the word containing pointCut
+	 */
+	static long headMask(int pointCut){
+		return -1L >>> (WORD_SIZE - 1 - (pointCut & (WORD_SIZE - 1)));
+	}
+	/**
+	 * Copy an individual into another one
+	 * @param source
+	 * @param destination
+	 */
+	public static void copy(long[] source, long[] destination){
+		System.arraycopy(source, 0, destination, 0, source.length);
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param numberOfRequirements
+	 * @return The individual as a vector of integers
+	 */
+	public static int[] toIntArray(long[] individual, int numberOfRequirements){
+		int[] values = new int[numberOfRequirements];
+
+		for(int i = 0; i <= numberOfRequirements - 1; i++){
+			values[i] = getValue(individual, i);
+		}
+
+		return values;
+	}
+	/**
+	 *
+	 * @param values
+	 * @return The individual given as a vector of integers packed in words
+	 */
+	public static long[] fromIntArray(int[] values){
+		long[] individual = newIndividual(values.length);
+
+		fromIntArray(values, individual);
+
+		return individual;
+	}
+	/**
+	 * Pack a vector of integers in an existing individual, whose previous values are overwritten
+	 * @param values
+	 * @param individual
+	 */
+	public static void fromIntArray(int[] values, long[] individual){
+		Arrays.fill(individual, 0);
+
+		for(int i = 0; i <= values.length - 1; i++){
+			if(values[i] != 0){
+				include(individual, i);
+			}
+		}
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param numberOfRequirements
+	 * @return The individual as a string of 0 and 1 separated by spaces
+	 */
+	public static String toString(long[] individual, int numberOfRequirements){
+		StringBuilder stringIndividual = new StringBuilder(2 * numberOfRequirements);
+
+		for(int i = 0; i <= numberOfRequirements - 1; i++){
+			if(i != 0){
+				stringIndividual.append(' ');
+			}
+			stringIndividual.append(getValue(individual, i));
+		}
+
+		return stringIndividual.toString();
+	}
+	/**
+	 * Parse a solution written by {@link #toString(long[], int)}, in a single pass over the characters
+	 * @param stringIndividual values (0 or 1) separated by spaces
+	 * @return The packed solution
+	 */
+	public static long[] fromString(String stringIndividual){
+		int numberOfRequirements = (stringIndividual.length() + 1) / 2;
+		long[] individual = newIndividual(numberOfRequirements);
+
+		for(int i = 0; i <= numberOfRequirements - 1; i++){
+			char value = stringIndividual.charAt(2 * i);
+
+			if(value == '1'){
+				include(individual, i);
+			}
+			else if(value != '0' || (i != numberOfRequirements - 1 && stringIndividual.charAt(2 * i + 1) != ' ')){
+				throw new IllegalArgumentException("Invalid solution at " + 2 * i + ": " + stringIndividual);
+			}
+		}
+
+		return individual;
+	}
+}
@@ -0,0 +1,301 @@
+package goes.iga;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ *
+ * This listener records the metrics of the generations in histograms, so the distribution
+ * (percentiles) of each metric over all generations and executions is known, and writes them
+ * in CSV. The histograms are lock-free, so a single recorder can be shared by solvers running
+ * concurrently (e.g. by the {@link ExperimentScheduler}).
+ * The time of a phase is recorded only in the generations where the phase runs.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class HistogramRecorder implements EvolutionListener {
+	/**
+	 * Histograms of the generation times and of the time of each phase, in nanoseconds
+	 */
+	private final Histogram generationTime = new Histogram();
+	private final Histogram[] phaseTimes = new Histogram[GenerationMetrics.Phase.values().length];
+	/**
+	 * Histograms of the number of subjective evaluations and of predictions by generation
+	 */
+	private final Histogram humanEvaluations = new Histogram();
+	private final Histogram predictions = new Histogram();
+	private final Histogram modelPredictions = new Histogram();
+	/**
+	 * Histogram of the bytes allocated by generation
+	 */
+	private final Histogram allocatedBytes = new Histogram();
+	/**
+	 * Histogram of the execution times, in nanoseconds
+	 */
+	private final Histogram solveTime = new Histogram();
+	/**
+	 * Constructor
+	 */
+	public HistogramRecorder() {
+		for(int i = 0; i <= phaseTimes.length - 1; i++){
+			phaseTimes[i] = new Histogram();
+		}
+	}
+
+	@Override
+	public void generationCompleted(GenerationMetrics metrics) {
+		generationTime.record(metrics.getGenerationTime());
+		for(GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()){
+			if(metrics.getPhaseTime(phase) > 0){
+				phaseTimes[phase.ordinal()].record(metrics.getPhaseTime(phase));
+			}
+		}
+		humanEvaluations.record(metrics.getHumanEvaluations());
+		predictions.record(metrics.getPredictions());
+		modelPredictions.record(metrics.getModelPredictions());
+		if(metrics.getAllocatedBytes() >= 0){
+			allocatedBytes.record(metrics.getAllocatedBytes());
+		}
+	}
+
+	@Override
+	public void solveCompleted(long time) {
+		solveTime.record(time);
+	}
+	/**
+	 *
+	 * @return the histogram of the generation times, in nanoseconds
+	 */
+	public Histogram getGenerationTime() {
+		return generationTime;
+	}
+	/**
+	 *
+	 * @param phase
+	 * @return the histogram of the times of the phase, in nanoseconds
+	 */
+	public Histogram getPhaseTime(GenerationMetrics.Phase phase) {
+		return phaseTimes[phase.ordinal()];
+	}
+	/**
+	 *
+	 * @return the histogram of the number of subjective evaluations by generation
+	 */
+	public Histogram getHumanEvaluations() {
+		return humanEvaluations;
+	}
+	/**
+	 *
+	 * @return the histogram of the number of predictions requested by generation
+	 */
+	public Histogram getPredictions() {
+		return predictions;
+	}
+	/**
+	 *
+	 * @return the histogram of the number of solutions presented to the model by generation
+	 */
+	public Histogram getModelPredictions() {
+		return modelPredictions;
+	}
+	/**
+	 *
+	 * @return the histogram of the bytes allocated by generation
+	 */
+	public Histogram getAllocatedBytes() {
+		return allocatedBytes;
+	}
+	/**
+	 *
+	 * @return the histogram of the execution times, in nanoseconds
+	 */
+	public Histogram getSolveTime() {
+		return solveTime;
+	}
+	/**
+	 * Write the histograms in a CSV file
+	 * @param file
+	 * @throws IOException
+	 */
+	public void writeCsv(File file) throws IOException {
+		try(Writer writer = new FileWriter(file)){
+			writeCsv(writer);
+		}
+	}
+	/**
+	 * Write the histograms in CSV, one line per metric with its count, mean, min, percentiles and max
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void writeCsv(Writer writer) throws IOException {
+		writer.write("metric,count,mean,min,p50,p90,p99,p999,max\n");
+		writeCsv(writer, "generationTime", generationTime);
+		for(GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()){
+			writeCsv(writer, getMetricName(phase) + "Time", phaseTimes[phase.ordinal()]);
+		}
+		writeCsv(writer, "humanEvaluations", humanEvaluations);
+		writeCsv(writer, "predictions", predictions);
+		writeCsv(writer, "modelPredictions", modelPredictions);
+		writeCsv(writer, "allocatedBytes", allocatedBytes);
+		writeCsv(writer, "solveTime", solveTime);
+		writer.flush();
+	}
+	/**
+	 * Write a line of the CSV
+	 * @param writer
+	 * @param metric
+	 * @param histogram
+	 * @throws IOException
+	 */
+	private void writeCsv(Writer writer, String metric, Histogram histogram) throws IOException {
+		writer.write(metric + "," + histogram.getCount() + "," + histogram.getMean() + "," + histogram.getMin()
+				+ "," + histogram.getValueAtPercentile(50) + "," + histogram.getValueAtPercentile(90)
+				+ "," + histogram.getValueAtPercentile(99) + "," + histogram.getValueAtPercentile(99.9)
+				+ "," + histogram.getMax() + "\n");
+	}
+	/**
+	 *
+	 * @param phase
+	 * @return The name of the phase in camel case, e.g. humanEvaluation
+	 */
+	static String getMetricName(GenerationMetrics.Phase phase) {
+		StringBuilder name = new StringBuilder();
+		boolean upperCase = false;
+
+		for(char c : phase.name().toCharArray()){
+			if(c == '_'){
+				upperCase = true;
+			}
+			else{
+				name.append(upperCase ? c : Character.toLowerCase(c));
+				upperCase = false;
+			}
+		}
+
+		return name.toString();
+	}
+	/**
+	 * Lock-free histogram of non-negative values. The values below 32 have their own bucket, and
+	 * each power of two above is split in 32 buckets, so a value is known with a relative error
+	 * below 1/32 whatever its magnitude.
+	 */
+	public static final class Histogram {
+		/**
+		 * Number of buckets by power of two is 2^SUB_BUCKET_BITS
+		 */
+		private static final int SUB_BUCKET_BITS = 5;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		private static final int NUMBER_OF_BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+		private final AtomicLongArray counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+		private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+		/**
+		 * Record a value, the negative ones are recorded as 0
+		 * @param value
+		 */
+		public void record(long value) {
+			if(value < 0){
+				value = 0;
+			}
+			counts.incrementAndGet(getBucket(value));
+			count.increment();
+			sum.add(value);
+			min.accumulate(value);
+			max.accumulate(value);
+		}
+		/**
+		 *
+		 * @param value
+		 * @return The bucket of the value
+		 */
+		static int getBucket(long value) {
+			if(value < SUB_BUCKETS){
+				return (int) value;
+			}
+			int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+			return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+		}
+		/**
+		 *
+		 * @param bucket
+		 * @return The lowest value of the bucket
+		 */
+		static long getLowestValue(int bucket) {
+			if(bucket < SUB_BUCKETS){
+				return bucket;
+			}
+			int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+
+			return ((long) (bucket - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		}
+		/**
+		 *
+		 * @return the number of recorded values
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+		/**
+		 *
+		 * @return the mean of the recorded values, 0 if none
+		 */
+		public double getMean() {
+			long n = count.sum();
+			return n > 0 ? (double) sum.sum() / n : 0;
+		}
+		/**
+		 *
+		 * @return the lowest recorded value, 0 if none
+		 */
+		public long getMin() {
+			return count.sum() > 0 ? min.get() : 0;
+		}
+		/**
+		 *
+		 * @return the highest recorded value, 0 if none
+		 */
+		public long getMax() {
+			return count.sum() > 0 ? max.get() : 0;
+		}
+		/**
+		 *
+		 * @param percentile between 0 and 100
+		 * @return The value below which the given percentage of the recorded values fall
+		 * (the lowest value of its bucket), 0 if none
+		 */
+		public long getValueAtPercentile(double percentile) {
+			long total = 0;
+
+			for(int i = 0; i <= NUMBER_OF_BUCKETS - 1; i++){
+				total += counts.get(i);
+			}
+			if(total == 0){
+				return 0;
+			}
+			if(percentile >= 100){
+				return getMax();
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+			long accumulated = 0;
+
+			for(int i = 0; i <= NUMBER_OF_BUCKETS - 1; i++){
+				accumulated += counts.get(i);
+				if(accumulated >= rank){
+					return Math.min(Math.max(getLowestValue(i), getMin()), getMax());
+				}
+			}
+
+			return getMax();
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package goes.iga;
-import java.util.Random;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 /**
  * This Class is used as a simulator of different types of profile for evaluating solutions.
  * This way, depending on the profile chosen, the evaluation of a  given  can  be different.
@@ -37,15 +42,57 @@ public class HumanSimulator {
 	 * Stores Target Solution
 	 */
 	private int[] targetSolution;
+	/**
+	 * Stores Target Solution packed in words (see {@link Genotype})
+	 */
+	private long[] packedTargetSolution;
 
-	private Random random;
+	/**
+	 * Draws the target solution of the RANDOM profile
+	 */
+	private RandomStream random;
+	/**
+	 * Directory of the target solutions of the MANUALLY profile
+	 */
+	private File targetsDirectory;
 	/**
 	 * Constructor
 	 */
 	public HumanSimulator(){
-		random = new Random();
+		random = new RandomStream();
 		this.maxHumanEvaluation = 100;
 		targetSolutionPercentage = 50;
+		targetsDirectory = new File("targets");
+	}
+	/**
+	 * Copy Constructor: the copy evaluates solutions according to the same target solution
+	 * and has its own random numbers generator, so it can be used by another thread
+	 * @param simulator
+	 */
+	public HumanSimulator(HumanSimulator simulator){
+		this();
+		this.maxHumanEvaluation = simulator.maxHumanEvaluation;
+		this.numberOfRequirements = simulator.numberOfRequirements;
+		this.requirementsScore = simulator.requirementsScore;
+		this.requirementsCost = simulator.requirementsCost;
+		this.targetSolutionPercentage = simulator.targetSolutionPercentage;
+		this.targetSolution = simulator.targetSolution;
+		this.packedTargetSolution = simulator.packedTargetSolution;
+		this.targetsDirectory = simulator.targetsDirectory;
+	}
+	/**
+	 * Set the seed of the target solution of the RANDOM profile
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		random = new RandomStream(seed);
+	}
+	/**
+	 * Set the directory of the target solutions used by the MANUALLY profile ("targets" by default)
+	 * @param targetsDirectory
+	 */
+	public void setTargetsDirectory(File targetsDirectory) {
+		this.targetsDirectory = targetsDirectory;
 	}
 	/**
 	 *
@@ -66,6 +113,8 @@ public class HumanSimulator {
 	/**
 	 * Set the Profile used to generate a target individual
 	 * @param human
+	 * @throws UncheckedIOException if the target solution of MANUALLY cannot be read
+	 * @throws IllegalArgumentException if the target solution of MANUALLY is invalid
 	 */
 	public void setHumanSimulatorProfile (String human) {
 
@@ -73,37 +122,37 @@ public class HumanSimulator {
 		/*
 		 * Generate individual RandomLy
 		 */
-		if(human == "RANDOM"){
+		if("RANDOM".equals(human)){
 			this.targetSolution = getRandomlyTargetSolution(nRequirementsInSolution);
 		}
 		/*
 		 * Order the requirements by score and return a solution with the higher score requirements
 		 */
-		else if (human == "HIGHER_SCORE") {
+		else if ("HIGHER_SCORE".equals(human)) {
 			this.targetSolution = getHigherScoreTargetSolution(nRequirementsInSolution);
 		}
 		/*
 		 * Order the requirements by score and return a solution with the lowest score requirements
 		 */
-		else if(human == "LOWER_SCORE") {
+		else if("LOWER_SCORE".equals(human)) {
 			this.targetSolution = getLowerScoreTargetSolution(nRequirementsInSolution);
 		}
 		/*
 		 * Order the requirements by cost and return a solution with the higher cost requirements
 		 */
-		else if (human == "HIGHER_COST") {
+		else if ("HIGHER_COST".equals(human)) {
 			this.targetSolution = getHigherCostTargetSolution(nRequirementsInSolution);
 		}
 		/*
 		 * Order the requirements by cost and return a solution with the lowest cost requirements
 		 */
-		else if (human == "LOWER_COST") {
+		else if ("LOWER_COST".equals(human)) {
 			this.targetSolution = getLowerCostTargetSolution(nRequirementsInSolution);
 		}
 		/*
-		 * This method has a set of solutions generated manually
+		 * The solutions generated manually are read from the targets directory (see setTargetsDirectory)
 		 */
-		else if (human == "MANUALLY") {
+		else if ("MANUALLY".equals(human)) {
 			this.targetSolution = getManuallyTargetSolution();
 		}
 		/*
@@ -113,6 +162,8 @@ public class HumanSimulator {
 			System.out.println("Profile NOT FOUND!");
 			System.exit(0);
 		}
+
+		this.packedTargetSolution = Genotype.fromIntArray(targetSolution);
 	}
 	/**
 	 *
@@ -127,13 +178,72 @@ public class HumanSimulator {
 	 * @return "subjective" evaluation
 	 */
 	public int getHumanEvaluation(int[] individual){
+		return getHumanEvaluation(getNumberOfSimilaritiesInIndividual(individual));
+	}
+	/**
+	 * Evaluate a given packed individual according to the target solution
+	 * @param individual
+	 * @return "subjective" evaluation
+	 */
+	public int getHumanEvaluation(long[] individual){
+		return getHumanEvaluation(getNumberOfSimilaritiesInIndividual(individual));
+	}
+	/**
+	 *
+	 * @param numberOfSimilaritiesInIndividual
+	 * @return "subjective" evaluation of a solution with the given number of similarities with the target solution
+	 */
+	private int getHumanEvaluation(int numberOfSimilaritiesInIndividual){
 		double humanEvaluation = 0;
-		double numberOfSimilaritiesInIndividual = getNumberOfSimilaritiesInIndividual(individual);
 
 		humanEvaluation = (maxHumanEvaluation * numberOfSimilaritiesInIndividual) / targetSolution.length;
 
 		return (int) Math.round(humanEvaluation);
 	}
+	/**
+	 * Evaluate the given packed individuals according to the target solution
+	 * @param individuals
+	 * @param evaluations output, the "subjective" evaluation of each individual in the same position
+	 */
+	public void getHumanEvaluations(long[][] individuals, int[] evaluations){
+		getHumanEvaluations(individuals, 0, individuals.length, evaluations);
+	}
+	/**
+	 * Evaluate the given packed individuals according to the target solution, split among the workers of the evaluator
+	 * @param evaluator
+	 * @param individuals
+	 * @param evaluations output, the "subjective" evaluation of each individual in the same position
+	 * @throws Exception
+	 */
+	public void getHumanEvaluations(PopulationEvaluator evaluator, long[][] individuals, int[] evaluations) throws Exception {
+		evaluator.evaluate(0, individuals.length, (worker, from, to) -> getHumanEvaluations(individuals, from, to, evaluations));
+	}
+	/**
+	 * Evaluate the individuals from (inclusive) to (exclusive)
+	 * @param individuals
+	 * @param from
+	 * @param to
+	 * @param evaluations
+	 */
+	private void getHumanEvaluations(long[][] individuals, int from, int to, int[] evaluations){
+		getNumberOfSimilarities(individuals, from, to, evaluations);
+
+		for(int i = from; i <= to - 1; i++){
+			evaluations[i] = getHumanEvaluation(evaluations[i]);
+		}
+	}
+	/**
+	 * Evaluate the given individuals according to the target solution
+	 * @param individuals
+	 * @param evaluations output, the "subjective" evaluation of each individual in the same position
+	 */
+	public void getHumanEvaluations(int[][] individuals, int[] evaluations){
+		getNumberOfSimilarities(individuals, evaluations);
+
+		for(int i = 0; i <= individuals.length - 1; i++){
+			evaluations[i] = getHumanEvaluation(evaluations[i]);
+		}
+	}
 	/**
 	 *
 	 * @return the target solution
@@ -142,30 +252,37 @@ public class HumanSimulator {
 		return this.targetSolution;
 	}
 	/**
-	 *
+	 * Read the target solution of the instance size from the targets directory (file T_n.txt,
+	 * with the number of requirements n followed by the value, 0 or 1, of each requirement)
 	 * @return
+	 * @throws UncheckedIOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file is not a target solution of the instance size
 	 */
 	private int[] getManuallyTargetSolution(){
-		int[] targetSolution = null;
+		File file = new File(targetsDirectory, "T_" + requirementsCost.length + ".txt");
+		String[] values;
+		int[] targetSolution;
 
-		if(50 == requirementsCost.length) {
-			targetSolution = new int[] {1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1, 0, 0, 1, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 1, 1, 1, 0, 1, 0};
+		try{
+			values = new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII).trim().split("\\s+");
 		}
-
-		else if(100 == requirementsCost.length){
-		targetSolution = new int[] {0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 1, 0, 0, 0, 0, 1, 1, 1, 0, 1, 1, 1, 1, 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 0, 1, 1, 1, 0, 0, 0, 1, 1, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 1, 0, 1, 0, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 1, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 0, 1, 1, 1, 1, 1};
+		catch(IOException e){
+			throw new UncheckedIOException("There is no TARGET for such size: " + file, e);
 		}
 
-		else if(150 == requirementsCost.length){
-			targetSolution = new int[] {0, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0, 1, 0, 0, 0, 0, 1, 1, 1, 0, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1, 1, 0, 0, 0, 0, 0, 1, 0, 0, 1, 0, 0, 0, 0, 1, 0, 1, 0, 0, 0, 0, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 1, 0, 1, 1, 0, 1, 1, 1, 0, 1, 1, 0, 0, 0, 1, 1, 1, 0, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 1, 1, 0, 1, 0, 1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 0, 1, 0, 1, 0, 0, 1, 1, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 1, 0, 1, 0, 1, 0, 1, 1, 0, 1, 1, 1, 1, 1, 0, 1, 1, 0};
-		}
+		try{
+			int numberOfRequirements = Integer.parseInt(values[0]);
 
-		else if(200 == requirementsCost.length){
-			targetSolution = new int[] {0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 0, 1, 0, 0, 1, 0, 0, 1, 1, 0, 0, 0, 0, 0, 1, 1, 0, 0, 0, 0, 1, 1, 1, 1, 0, 1, 1, 1, 0, 1, 0, 1, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 0, 1, 0, 1, 1, 1, 1, 0, 0, 1, 0, 1, 0, 0, 1, 0, 1, 1, 0, 0, 1, 0, 0, 1, 0, 0, 0, 1, 0, 1, 0, 0, 1, 1, 0, 1, 0, 0, 1, 1, 0, 1, 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 1, 1, 0, 0, 0, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 1, 1, 1, 0, 0, 0, 1, 0, 1, 0, 0, 1, 1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1, 0, 1, 0, 1, 0, 0, 1, 0, 0, 0, 0, 1, 1, 0, 0, 1, 0, 1};
+			if(numberOfRequirements != requirementsCost.length || values.length != numberOfRequirements + 1){
+				throw new IllegalArgumentException("Invalid target solution in " + file);
+			}
+			targetSolution = new int[numberOfRequirements];
+			for(int i = 0; i <= targetSolution.length - 1; i++){
+				targetSolution[i] = Integer.parseInt(values[i + 1]);
+			}
 		}
-		else {
-			System.out.println("There is no TARGET for such size!");
-			System.exit(0);
+		catch(NumberFormatException e){
+			throw new IllegalArgumentException("Invalid target solution in " + file, e);
 		}
 
 		return targetSolution;
@@ -215,16 +332,7 @@ public class HumanSimulator {
 	 * @return
 	 */
 	private boolean isRequirementInTargetSolution(int requirement, int[] targetSolution){
-		boolean result = false;
-
-		for(int i = 0; i <= targetSolution.length - 1; i++){
-			if(targetSolution[requirement] == 1){
-				result = true;
-				break;
-			}
-		}
-
-		return result;
+		return targetSolution[requirement] == 1;
 	}
 	/**
 	 *
@@ -232,171 +340,134 @@ public class HumanSimulator {
 	 * @return
 	 */
 	private int[] getHigherScoreTargetSolution(int numberOfRequirementsInSolution){
-		int[] targetSolution = new int[numberOfRequirements];
-		int[] requirementsSelectedFlags = new int[numberOfRequirements];
-		int higherScoreRequirement = 0;
-
-		for(int i = 0; i <= numberOfRequirementsInSolution - 1; i++){
-			higherScoreRequirement = selectHigherScoreRequirement(requirementsSelectedFlags);
-			requirementsSelectedFlags[higherScoreRequirement] = 1;
-			targetSolution[higherScoreRequirement] = 1;
-		}
-
-		return targetSolution;
+		return getOrderedTargetSolution(requirementsScore, true, numberOfRequirementsInSolution);
 	}
 	/**
 	 *
-	 * @param requirementsSelectedFlags
+	 * @param numberOfRequirementsInSolution
 	 * @return
 	 */
-	private int selectHigherScoreRequirement(int[] requirementsSelectedFlags){
-		int higherScoreRequirement = getFirstRequirementNotSelected(requirementsSelectedFlags);
-
-		for(int i = 0; i <= requirementsScore.length - 1; i++){
-			if(requirementsScore[i] > requirementsScore[higherScoreRequirement] && requirementsSelectedFlags[i] == 0){
-				higherScoreRequirement = i;
-			}
-		}
-
-		return higherScoreRequirement;
+	private int[] getLowerScoreTargetSolution(int numberOfRequirementsInSolution){
+		return getOrderedTargetSolution(requirementsScore, false, numberOfRequirementsInSolution);
 	}
 	/**
 	 *
-	 * @param requirementsSelectedFlags
+	 * @param numberOfRequirementsInSolution
 	 * @return
 	 */
-	private int getFirstRequirementNotSelected(int[] requirementsSelectedFlags){
-		int firstRequirementNotSelected = 0;
-
-		for(int i = 0; i <= requirementsSelectedFlags.length - 1; i++){
-			if(requirementsSelectedFlags[i] == 0){
-				firstRequirementNotSelected = i;
-				break;
-			}
-		}
-
-		return firstRequirementNotSelected;
-	}
-/**
- *
- * @param numberOfRequirementsInSolution
- * @return
- */
-	private int[] getLowerScoreTargetSolution(int numberOfRequirementsInSolution){
-		int[] targetSolution = new int[numberOfRequirements];
-		int[] requirementsSelectedFlags = new int[numberOfRequirements];
-		int lowerScoreRequirement = 0;
-
-		for(int i = 0; i <= numberOfRequirementsInSolution - 1; i++){
-			lowerScoreRequirement = selectLowerScoreRequirement(requirementsSelectedFlags);
-			requirementsSelectedFlags[lowerScoreRequirement] = 1;
-			targetSolution[lowerScoreRequirement] = 1;
-		}
-
-		return targetSolution;
+	private int[] getHigherCostTargetSolution(int numberOfRequirementsInSolution){
+		return getOrderedTargetSolution(requirementsCost, true, numberOfRequirementsInSolution);
 	}
 	/**
 	 *
-	 * @param requirementsSelectedFlags
+	 * @param numberOfRequirementsInSolution
 	 * @return
 	 */
-	private int selectLowerScoreRequirement(int[] requirementsSelectedFlags){
-		int lowerScoreRequirement = getFirstRequirementNotSelected(requirementsSelectedFlags);
-
-		for(int i = 0; i <= requirementsScore.length - 1; i++){
-			if(requirementsScore[i] < requirementsScore[lowerScoreRequirement] && requirementsSelectedFlags[i] == 0){
-				lowerScoreRequirement = i;
-			}
-		}
-
-		return lowerScoreRequirement;
+	private int[] getLowerCostTargetSolution(int numberOfRequirementsInSolution){
+		return getOrderedTargetSolution(requirementsCost, false, numberOfRequirementsInSolution);
 	}
 	/**
-	 *
+	 * Sort the requirements by value once, O(n log n). The sort is stable, so among requirements
+	 * with the same value the ones with lower index are included first.
+	 * @param values score or cost of each requirement
+	 * @param higher true to include the requirements with the higher values, false the lower ones
 	 * @param numberOfRequirementsInSolution
-	 * @return
+	 * @return A solution with the given number of requirements
 	 */
-	private int[] getHigherCostTargetSolution(int numberOfRequirementsInSolution){
+	private int[] getOrderedTargetSolution(double[] values, boolean higher, int numberOfRequirementsInSolution){
 		int[] targetSolution = new int[numberOfRequirements];
+		Integer[] order = new Integer[numberOfRequirements];
 
-		int[] requirementsSelectedFlags = new int[numberOfRequirements];
-		int higherCostRequirement = 0;
+		for(int i = 0; i <= order.length - 1; i++){
+			order[i] = i;
+		}
+		Arrays.sort(order, higher
+				? (Integer i, Integer j) -> Double.compare(values[j], values[i])
+				: (Integer i, Integer j) -> Double.compare(values[i], values[j]));
 
 		for(int i = 0; i <= numberOfRequirementsInSolution - 1; i++){
-			higherCostRequirement = selectHigherCostRequirement(requirementsSelectedFlags);
-			requirementsSelectedFlags[higherCostRequirement] = 1;
-			targetSolution[higherCostRequirement] = 1;
+			targetSolution[order[i]] = 1;
 		}
 
 		return targetSolution;
 	}
 	/**
 	 *
-	 * @param requirementsSelectedFlags
+	 * @param individual
 	 * @return
 	 */
-	private int selectHigherCostRequirement(int[] requirementsSelectedFlags){
-		int higherCostRequirement = getFirstRequirementNotSelected(requirementsSelectedFlags);
+	public int getNumberOfSimilaritiesInIndividual(int[] individual){
+		int numberOfSimilaritiesInIndividual = 0;
 
-		for(int i = 0; i <= requirementsCost.length - 1; i++){
-			if(requirementsCost[i] > requirementsCost[higherCostRequirement] && requirementsSelectedFlags[i] == 0){
-				higherCostRequirement = i;
+		for(int i = 0; i <= targetSolution.length - 1; i++){
+			if(targetSolution[i] == individual[i]){
+				numberOfSimilaritiesInIndividual++;
 			}
 		}
 
-		return higherCostRequirement;
+		return numberOfSimilaritiesInIndividual;
 	}
 	/**
 	 *
-	 * @param numberOfRequirementsInSolution
+	 * @param individual packed individual
 	 * @return
 	 */
-	private int[] getLowerCostTargetSolution(int numberOfRequirementsInSolution){
-		int[] targetSolution = new int[numberOfRequirements];
-
-		int[] requirementsSelectedFlags = new int[numberOfRequirements];
-		int lowerCostRequirement = 0;
-
-		for(int i = 0; i <= numberOfRequirementsInSolution - 1; i++){
-			lowerCostRequirement = selectLowerCostRequirement(requirementsSelectedFlags);
-			requirementsSelectedFlags[lowerCostRequirement] = 1;
-			targetSolution[lowerCostRequirement] = 1;
-		}
-
-		return targetSolution;
+	public int getNumberOfSimilaritiesInIndividual(long[] individual){
+		return Genotype.getNumberOfSimilarities(packedTargetSolution, individual, targetSolution.length);
 	}
 	/**
-	 *
-	 * @param requirementsSelectedFlags
-	 * @return
+	 * Count the similarities of the given packed individuals with the target solution, with a xor
+	 * and a bit count per word
+	 * @param individuals
+	 * @param similarities output, the number of similarities of each individual in the same position
+	 */
+	public void getNumberOfSimilarities(long[][] individuals, int[] similarities){
+		getNumberOfSimilarities(individuals, 0, individuals.length, similarities);
+	}
+	/**
+	 * Count the similarities of the given packed individuals, split among the workers of the evaluator
+	 * @param evaluator
+	 * @param individuals
+	 * @param similarities output, the number of similarities of each individual in the same position
+	 * @throws Exception
 	 */
-	private int selectLowerCostRequirement(int[] requirementsSelectedFlags){
-		int lowerCostRequirement = getFirstRequirementNotSelected(requirementsSelectedFlags);
+	public void getNumberOfSimilarities(PopulationEvaluator evaluator, long[][] individuals, int[] similarities) throws Exception {
+		evaluator.evaluate(0, individuals.length, (worker, from, to) -> getNumberOfSimilarities(individuals, from, to, similarities));
+	}
+	/**
+	 * Count the similarities of the individuals from (inclusive) to (exclusive)
+	 * @param individuals
+	 * @param from
+	 * @param to
+	 * @param similarities
+	 */
+	private void getNumberOfSimilarities(long[][] individuals, int from, int to, int[] similarities){
+		long[] target = packedTargetSolution;
+		int numberOfRequirements = targetSolution.length;
+
+		for(int i = from; i <= to - 1; i++){
+			long[] individual = individuals[i];
+			int numberOfDifferences = 0;
 
-		for(int i = 0; i <= requirementsCost.length - 1; i++){
-			if(requirementsSelectedFlags[i] == 0)
-			if(requirementsCost[i] < requirementsCost[lowerCostRequirement] && requirementsSelectedFlags[i] == 0){
-				lowerCostRequirement = i;
+			for(int w = 0; w <= target.length - 1; w++){
+				numberOfDifferences += Long.bitCount(target[w] ^ individual[w]);
 			}
+			similarities[i] = numberOfRequirements - numberOfDifferences;
 		}
-
-		return lowerCostRequirement;
 	}
 	/**
-	 *
-	 * @param individual
-	 * @return
+	 * Count the similarities of the given individuals with the target solution, each one
+	 * packed in a reused buffer and compared with a xor and a bit count per word
+	 * @param individuals
+	 * @param similarities output, the number of similarities of each individual in the same position
 	 */
-	public int getNumberOfSimilaritiesInIndividual(int[] individual){
-		int numberOfSimilaritiesInIndividual = 0;
+	public void getNumberOfSimilarities(int[][] individuals, int[] similarities){
+		long[] packedIndividual = Genotype.newIndividual(targetSolution.length);
 
-		for(int i = 0; i <= targetSolution.length - 1; i++){
-			if(targetSolution[i] == individual[i]){
-				numberOfSimilaritiesInIndividual++;
-			}
+		for(int i = 0; i <= individuals.length - 1; i++){
+			Genotype.fromIntArray(individuals[i], packedIndividual);
+			similarities[i] = getNumberOfSimilaritiesInIndividual(packedIndividual);
 		}
-
-		return numberOfSimilaritiesInIndividual;
 	}
 	/**
 	 *
@@ -4,7 +4,6 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Random;
 
 public class InstanceGenerator {
 
@@ -13,7 +12,7 @@ public class InstanceGenerator {
 	private int importanceUpperBound;
 	private int costUpperBound;
 
-	private Random random;
+	private RandomStream random;
 
 	public InstanceGenerator(int numberOfCustomers, int numberOfRequirements, int importanceUpperBound, int costUpperBound){
 		this.numberOfCustomers = numberOfCustomers;
@@ -21,7 +20,42 @@ public class InstanceGenerator {
 		this.importanceUpperBound = importanceUpperBound;
 		this.costUpperBound = costUpperBound;
 
-		this.random = new Random();
+		this.random = new RandomStream();
+	}
+
+	public void setSeed(long seed){
+		random = new RandomStream(seed);
+	}
+
+	/**
+	 * Generate an instance in memory, with the same distributions as the generated files
+	 * @return
+	 */
+	public NrpInstance generate(){
+		double[] customersImportance = new double[numberOfCustomers];
+		int[][] requirementsImportances = new int[numberOfCustomers][numberOfRequirements];
+		double[] requirementsCosts = new double[numberOfRequirements];
+		double randomNumbersSum = 0;
+
+		for(int i = 0; i <= numberOfCustomers - 1; i++){
+			customersImportance[i] = random.nextDouble();
+			randomNumbersSum += customersImportance[i];
+		}
+		for(int i = 0; i <= numberOfCustomers - 1; i++){
+			customersImportance[i] = customersImportance[i] / randomNumbersSum;
+		}
+
+		for(int i = 0; i <= numberOfCustomers - 1; i++){
+			for(int j = 0; j <= numberOfRequirements - 1; j++){
+				requirementsImportances[i][j] = random.nextInt(importanceUpperBound) + 1;
+			}
+		}
+
+		for(int j = 0; j <= numberOfRequirements - 1; j++){
+			requirementsCosts[j] = random.nextInt(costUpperBound) + 1;
+		}
+
+		return new NrpInstance(customersImportance, requirementsImportances, requirementsCosts);
 	}
 
 	public void generateInstance(){
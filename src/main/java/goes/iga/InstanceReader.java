@@ -1,19 +1,16 @@
 package goes.iga;
 import java.io.File;
-import java.io.FileReader;
-import java.io.BufferedReader;
 
 public class InstanceReader {
 
-	private BufferedReader reader;
+	private NrpInstance instance;
 	/**
-	 * Constructor
+	 * Constructor, the instance (text or binary format, see {@link NrpInstance}) is read once
 	 * @param instance
 	 */
 	public InstanceReader(File instance){
 		try{
-			this.reader = new BufferedReader(new FileReader(instance));
-			reader.mark(1);
+			this.instance = NrpInstance.read(instance);
 		}
 		catch(Exception e){
 			System.out.println("Instance reading error");
@@ -21,122 +18,38 @@ public class InstanceReader {
 		}
 	}
 	/**
-	 * Get Number Of Clients
-	 * @return
+	 * Constructor using an instance already read
+	 * @param instance
 	 */
-	private int getNumberOfCustomers(){
-		String[] values = null;
-		int numberOfCustomers = 0;
-
-		try{
-			reader.reset();
-			values = reader.readLine().split(" ");
-			numberOfCustomers = Integer.parseInt(values[0]);
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		return numberOfCustomers;
+	public InstanceReader(NrpInstance instance){
+		this.instance = instance;
 	}
 	/**
-	 * Get number of requirements from the specified instance
-	 * @return
+	 *
+	 * @return the instance read
 	 */
-	private int getNumberOfRequirements(){
-		String[] values = null;
-		int numberOfRequirements = 0;
-
-		try{
-			reader.reset();
-			values = reader.readLine().split(" ");
-			numberOfRequirements = Integer.parseInt(values[1]);
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		return numberOfRequirements;
+	public NrpInstance getInstance(){
+		return instance;
 	}
 	/**
 	 * Get importance of the clients from the instance
 	 * @return
 	 */
 	public double[] getCustomersImportance(){
-		double[] customersImportance = new double[getNumberOfCustomers()];
-		String[] values = null;
-
-		try{
-			reader.reset();
-			reader.readLine();
-			reader.readLine();
-			values = reader.readLine().split(" ");
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		for(int i = 0; i <= customersImportance.length - 1; i++){
-			customersImportance[i] = Double.parseDouble(values[i]);
-		}
-
-		return customersImportance;
+		return instance.getCustomersImportance();
 	}
 	/**
 	 * Get Importances of the requirements
 	 * @return
 	 */
 	public double[][] getRequirementsImportances(){
-		double[][] requirementsImportances = new double[getNumberOfCustomers()][getNumberOfRequirements()];
-		String[] values = null;
-
-		try{
-			reader.reset();
-			reader.readLine();
-			reader.readLine();
-			reader.readLine();
-			reader.readLine();
-
-			for(int i = 0; i <= requirementsImportances.length - 1; i++){
-				values = reader.readLine().split(" ");
-
-				for(int j = 0; j <= requirementsImportances[0].length - 1; j++){
-					requirementsImportances[i][j] = Integer.parseInt(values[j]);
-				}
-			}
-
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		return requirementsImportances;
+		return instance.getRequirementsImportances();
 	}
 	/**
 	 * Get requirement Cost from the instance
 	 * @return
 	 */
 	public double[] getRequirementsCosts(){
-		double[] requirementsCosts = new double[getNumberOfRequirements()];
-		int numberOfCustomers = getNumberOfCustomers();
-		String[] values = null;
-
-		try{
-			reader.reset();
-			for(int i = 0; i <= 5 + numberOfCustomers - 1; i++){
-				reader.readLine();
-			}
-
-			values = reader.readLine().split(" ");
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		for(int i = 0; i <= requirementsCosts.length - 1; i++){
-			requirementsCosts[i] = Integer.parseInt(values[i]);
-		}
-
-		return requirementsCosts;
+		return instance.getRequirementsCosts();
 	}
 }
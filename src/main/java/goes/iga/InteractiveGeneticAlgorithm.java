@@ -1,8 +1,11 @@
 package goes.iga;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Random;
+import java.util.HashSet;
 
-import weka.classifiers.Classifier;
 import weka.classifiers.functions.MultilayerPerceptron;
 /**
  *
@@ -13,7 +16,55 @@ import weka.classifiers.functions.MultilayerPerceptron;
  * @author --
  *
  */
-public class InteractiveGeneticAlgorithm {
+public class InteractiveGeneticAlgorithm implements AutoCloseable {
+	/**
+	 * Reasons why the generational loop stops
+	 */
+	public enum StoppingReason {
+		/**
+		 * The number of generations was reached
+		 */
+		MAX_GENERATIONS,
+		/**
+		 * The best fitness did not improve during the stagnation window
+		 */
+		STAGNATION,
+		/**
+		 * The diversity of the population fell below the minimum
+		 */
+		DIVERSITY_COLLAPSE,
+		/**
+		 * The time limit was reached
+		 */
+		DEADLINE,
+		/**
+		 * The next generation would exceed the max number of fitness evaluations
+		 */
+		EVALUATION_BUDGET
+	}
+	/**
+	 * Ways to repair a solution whose cost exceeds the budget
+	 */
+	public enum RepairStrategy {
+		/**
+		 * Random requirements are removed until the cost fits the budget
+		 */
+		RANDOM,
+		/**
+		 * The requirements with the lowest score/cost ratio are removed first
+		 */
+		GREEDY,
+		/**
+		 * As GREEDY, then the requirements with the highest ratio which fit the leftover budget are added
+		 */
+		GREEDY_WITH_REFILL
+	}
+	/**
+	 * Max number of requirements for which the AUTO model considers the Weka multilayer perceptron
+	 * (trained with 100 solutions, it takes about 3 seconds for 100 requirements and 10 for 200).
+	 * Measured offline, so that the choice of the AUTO model does not depend on the machine load
+	 */
+	private static final int AUTO_MAX_WEKA_REQUIREMENTS = 50;
 	/**
 	 * Parameters alpha (the firs one) and beta (the seconde one) representing,
 	 * respectively, weight of score and subjective approach
@@ -28,17 +79,46 @@ public class InteractiveGeneticAlgorithm {
 	 */
 	public double[] requirementsScore;
 	/**
-	 * Stores maxIndividualScore provided by the Non-Interactive Approach
+	 * Stores maxIndividualScore, the max possible score within the budget (see {@link KnapsackBound})
 	 */
 	private double maxIndividualScore;
+	/**
+	 * Budget for which maxIndividualScore was computed, NaN if it was not computed
+	 */
+	private double maxIndividualScoreBudget = Double.NaN;
 	/**
 	 * Stores cost of each requirement
 	 */
 	public double[] requirementsCost;
 	/**
-	 * Stores The Set of solution/individuals
+	 * Stores The Set of solution/individuals, each one packed in words (see {@link Genotype})
+	 */
+	private long[][] population;
+	/**
+	 * Stores the score of each solution in population, kept up to date by the genetic operators
+	 */
+	private double[] populationScores;
+	/**
+	 * Stores the cost of each solution in population, kept up to date by the genetic operators
+	 */
+	private double[] populationCosts;
+	/**
+	 * Stores the offspring of the current generation
+	 */
+	private long[][] children;
+	/**
+	 * Stores the score of each solution in offspring
+	 */
+	private double[] childrenScores;
+	/**
+	 * Stores the cost of each solution in offspring
+	 */
+	private double[] childrenCosts;
+	/**
+	 * If true, the scores and costs updated by the genetic operators are checked against
+	 * a full recomputation every generation (debug mode)
 	 */
-	private int[][] population;
+	private boolean verifyIncrementalEvaluation;
 	/**
 	 * Stores the number of solutions/individuals
 	 */
@@ -47,6 +127,18 @@ public class InteractiveGeneticAlgorithm {
 	 * Stores fitness values of all solutions in current population
 	 */
 	private double[] fitnessValues;
+	/**
+	 * Stores the predictions of the learning model for the solutions in current population
+	 */
+	private double[] predictions;
+	/**
+	 * Indices of the solutions in current population, in order
+	 */
+	private int[] populationOrder;
+	/**
+	 * Stores the predictions already made by the learning model, null if disabled
+	 */
+	private PredictionCache predictionCache;
 	/**
 	 * Stores the number of Generations
 	 */
@@ -72,13 +164,24 @@ public class InteractiveGeneticAlgorithm {
 	 */
 	private double budget;
 	/**
-	 * Random Object used to generate random numbers
+	 * Independent random numbers streams of the initialization (and of the solutions of the results),
+	 * of the choice of the solutions evaluated by the human and of each genetic operator, split from
+	 * the stream of the execution (see {@link #setSeed(long)})
 	 */
-	private Random random;
+	private RandomStream initializationRandom;
+	private RandomStream samplingRandom;
+	private RandomStream selectionRandom;
+	private RandomStream crossoverRandom;
+	private RandomStream mutationRandom;
+	private RandomStream repairRandom;
 	/**
 	 * HashMap containing results and solution
 	 */
 	private HashMap<String, String> results;
+	/**
+	 * Results of the last execution, null until it stops
+	 */
+	private RunResult runResult;
 	/**
 	 * Used to set the max number of subjective evaluations can be done given
 	 * the values of the parameters
@@ -89,13 +192,62 @@ public class InteractiveGeneticAlgorithm {
 	 */
 	private HumanSimulator simulator;
 	/**
-	 * DatSet used to Stores solutions and their respective human evaluations
+	 * Stores copies of the solutions evaluated by the human and their evaluations, used to train
+	 * the model. When it is full the oldest solution is replaced (position numberOfTrainingSamples % capacity)
+	 */
+	private long[][] trainingIndividuals;
+	private double[] trainingEvaluations;
+	private int numberOfTrainingSamples;
+	/**
+	 * Max number of solutions used to train the model (0 means nSubjectiveEvaluations)
+	 */
+	private int trainingSetCapacity;
+	/**
+	 * Number of human evaluations asked before the first training (the others are asked along the
+	 * evolution), number of generations between retrainings (0 disables them, so all the human
+	 * evaluations are asked before the first training) and number of human evaluations asked at each retraining
+	 */
+	private int numberOfInitialEvaluations;
+	private int retrainingInterval;
+	private int evaluationsPerRetraining;
+	/**
+	 * Generation of the last training of the model, and number of solutions added to the training
+	 * set (numberOfTrainingSamples) when it happened (0 if the model is not trained)
+	 */
+	private int lastTrainingGeneration;
+	private int numberOfSamplesInModel;
+	/**
+	 * Asks the human evaluations without waiting the answers, null if they are asked synchronously
 	 */
-	private DataSet dataSet;
+	private AsynchronousHumanEvaluator humanEvaluator;
+	/**
+	 * Evaluations answered asynchronously by the human, by solution
+	 */
+	private final HashMap<PredictionCache.Key, Integer> humanEvaluations = new HashMap<PredictionCache.Key, Integer>();
+	/**
+	 * Key reused by the lookups of human evaluations
+	 */
+	private final PredictionCache.Key probe = new PredictionCache.Key();
+	/**
+	 * Generation of the last asynchronous requests
+	 */
+	private int lastRequestGeneration;
+	/**
+	 * Model and human evaluations budget shared with other islands, null if the solver is not an island
+	 */
+	private SharedSurrogate sharedSurrogate;
+	/**
+	 * Version of the shared model copied by this island (0 if none)
+	 */
+	private long sharedModelVersion;
+	/**
+	 * Fitness of the best solution found, computed by {@link #getBestIndividual()}
+	 */
+	private double bestIndividualFitness;
 	/**
 	 * Learning model used to predict
 	 */
-	private Classifier model;
+	private Surrogate model;
 	/**
 	 *
 	 */
@@ -105,6 +257,84 @@ public class InteractiveGeneticAlgorithm {
 	 * (Only on first step)
 	 */
 	private int evaluationsCounter;
+	/**
+	 * Splits the evaluation of the population among the worker threads
+	 */
+	private PopulationEvaluator evaluator;
+	/**
+	 * Notified of the metrics of each generation, null if disabled
+	 */
+	private EvolutionListener evolutionListener;
+	/**
+	 * Metrics of the current generation, reused every generation
+	 */
+	private final GenerationMetrics generationMetrics = new GenerationMetrics();
+	/**
+	 * Index of the current generation
+	 */
+	private int generation;
+	/**
+	 * Number of predictions requested to the learning model
+	 */
+	private long numberOfPredictions;
+	/**
+	 * Number of solutions presented to the learning model (not found in the cache)
+	 */
+	private long numberOfModelPredictions;
+	/**
+	 * Number of generations without improvement of the best fitness after which the
+	 * loop stops, and the relative improvement required (0 disables the criterion)
+	 */
+	private int stagnationWindow;
+	private double stagnationTolerance;
+	/**
+	 * Best fitness found so far, and the generation in which it was found
+	 */
+	private double bestFitness;
+	private int bestFitnessGeneration;
+	/**
+	 * The loop stops when the diversity of the population falls below this value
+	 * (see {@link #getDiversity()}, 0 disables the criterion)
+	 */
+	private double minimumDiversity;
+	/**
+	 * Number of solutions including each requirement, used to compute the diversity
+	 */
+	private int[] requirementCounts;
+	/**
+	 * Max duration of an execution in milliseconds (0 disables the criterion)
+	 */
+	private long timeLimit;
+	/**
+	 * Time when the execution started, in nanoseconds
+	 */
+	private long startTime;
+	/**
+	 * Max number of fitness evaluations of an execution (0 disables the criterion)
+	 */
+	private long maxOfFitnessEvaluations;
+	/**
+	 * Number of fitness evaluations of the current execution
+	 */
+	private long numberOfFitnessEvaluations;
+	/**
+	 * Strategy used to repair the solutions whose cost exceeds the budget
+	 */
+	private RepairStrategy repairStrategy = RepairStrategy.RANDOM;
+	/**
+	 * Requirements sorted by increasing score/cost ratio, computed once when first needed
+	 */
+	private int[] requirementsByRatio;
+	/**
+	 * File where the state is saved every checkpointInterval generations (null disables the checkpoints)
+	 */
+	private File checkpointFile;
+	private int checkpointInterval;
+	/**
+	 * Serialized model given to the last checkpoint, and the number of solutions it was trained with
+	 */
+	private byte[] checkpointModel;
+	private int checkpointModelSamples;
 	/**
 	 * Constructor
 	 * @param reader
@@ -114,11 +344,22 @@ public class InteractiveGeneticAlgorithm {
 	 */
 	public InteractiveGeneticAlgorithm(
 			InstanceReader reader, String model, HumanSimulator simulator) throws Exception{
+		this(reader.getInstance(), model, simulator);
+	}
+	/**
+	 * Constructor
+	 * @param instance
+	 * @param model
+	 * @param simulator
+	 * @throws Exception
+	 */
+	public InteractiveGeneticAlgorithm(
+			NrpInstance instance, String model, HumanSimulator simulator) throws Exception{
 
 		this.simulator = simulator;
-		requirementsScore = getRequirementsScore(reader.getCustomersImportance(), reader.getRequirementsImportances());
+		requirementsScore = instance.getRequirementsScore();
 		this.maxIndividualScore = 1;
-		requirementsCost = reader.getRequirementsCosts();
+		requirementsCost = instance.getRequirementsCosts();
 		this.numberOfRequirements = requirementsCost.length;
 		this.crossoverProbability = 90;
 		this.mutationProbability = 1;
@@ -128,9 +369,12 @@ public class InteractiveGeneticAlgorithm {
 		this.nSubjectiveEvaluations = 100;
 		double budgetPercentage = 60;
 		this.budget = calculateBudget(budgetPercentage);
-		this.random = new Random();
-		this.model = getClassifier(model);
+		setRandomStream(new RandomStream());
+		this.model = getSurrogate(model, numberOfRequirements);
 		this.maxOfEvaluations = numberOfGenerations * numberOfIndividuals;
+		this.evaluator = new PopulationEvaluator(1);
+		this.evaluator.setModel(this.model);
+		this.predictionCache = new PredictionCache(4 * numberOfIndividuals);
 		simulator.setCostValues(requirementsCost);
 		simulator.setScoreValues(requirementsScore);
 	}
@@ -156,32 +400,187 @@ public class InteractiveGeneticAlgorithm {
 		return this.parameters;
 	}
 	/**
-	 * Requirement Scores Vector
-	 * @param customersImportance
-	 * @param requirementsImportance
-	 * @return
+	 * Enable the debug mode checking the scores and costs updated by the genetic operators
+	 * against a full recomputation every generation
+	 * @param verifyIncrementalEvaluation
 	 */
-	private double[] getRequirementsScore(double[] customersImportance, double[][] requirementsImportance){
-		double[] requirementsScore = new double[requirementsImportance[0].length];
-
-		for (int i = 0; i <= customersImportance.length - 1; i++) {
-			for (int j = 0; j <= requirementsImportance[0].length - 1; j++) {
-				requirementsScore[j] += customersImportance[i] * requirementsImportance[i][j];
-			}
+	public void setVerifyIncrementalEvaluation(boolean verifyIncrementalEvaluation) {
+		this.verifyIncrementalEvaluation = verifyIncrementalEvaluation;
+	}
+	/**
+	 * Set the number of threads used to evaluate the population (1 evaluates on the calling thread)
+	 * @param numberOfThreads
+	 * @throws Exception
+	 */
+	public void setNumberOfThreads(int numberOfThreads) throws Exception {
+		setEvaluator(new PopulationEvaluator(numberOfThreads));
+	}
+	/**
+	 * Set the evaluator used to split the evaluation of the population, e.g. one sharing a pool
+	 * among several solvers. The solver closes the evaluator it replaces, and this one when it is closed.
+	 * @param evaluator
+	 * @throws Exception
+	 */
+	public void setEvaluator(PopulationEvaluator evaluator) throws Exception {
+		evaluator.setModel(model);
+		if(this.evaluator != evaluator){
+			this.evaluator.close();
 		}
-
-		return requirementsScore;
+		this.evaluator = evaluator;
+		if(predictionCache != null){
+			predictionCache.invalidate();
+		}
+	}
+	/**
+	 * Release the threads of the evaluator of the population
+	 */
+	@Override
+	public void close() {
+		evaluator.close();
+	}
+	/**
+	 * Set the listener notified of the metrics of each generation (null disables the metrics)
+	 * @param evolutionListener
+	 */
+	public void setEvolutionListener(EvolutionListener evolutionListener) {
+		this.evolutionListener = evolutionListener;
+	}
+	/**
+	 * Set the strategy used to repair the solutions whose cost exceeds the budget
+	 * @param repairStrategy
+	 */
+	public void setRepairStrategy(RepairStrategy repairStrategy) {
+		this.repairStrategy = repairStrategy;
+	}
+	/**
+	 * Stop when the best fitness does not improve during a number of generations
+	 * @param stagnationWindow number of generations, 0 disables the criterion
+	 * @param stagnationTolerance improvements below this fraction of the best fitness are ignored
+	 */
+	public void setStagnationWindow(int stagnationWindow, double stagnationTolerance) {
+		this.stagnationWindow = stagnationWindow;
+		this.stagnationTolerance = stagnationTolerance;
+	}
+	/**
+	 * Stop when the diversity of the population falls below the given value
+	 * @param minimumDiversity see {@link #getDiversity()}, 0 disables the criterion
+	 */
+	public void setMinimumDiversity(double minimumDiversity) {
+		this.minimumDiversity = minimumDiversity;
+	}
+	/**
+	 * Stop when the execution lasts longer than the given time
+	 * @param timeLimit in milliseconds, 0 disables the criterion
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+	/**
+	 * Stop before a generation which would exceed the given number of fitness evaluations
+	 * @param maxOfFitnessEvaluations 0 disables the criterion
+	 */
+	public void setMaxOfFitnessEvaluations(long maxOfFitnessEvaluations) {
+		this.maxOfFitnessEvaluations = maxOfFitnessEvaluations;
+	}
+	/**
+	 * Set the number of solutions evaluated by the human in an execution
+	 * @param nSubjectiveEvaluations
+	 */
+	public void setNumberOfSubjectiveEvaluations(int nSubjectiveEvaluations) {
+		this.nSubjectiveEvaluations = nSubjectiveEvaluations;
+	}
+	/**
+	 * Spread the human evaluations along the evolution: the model is trained after the initial
+	 * evaluations, then every retrainingInterval generations the human evaluates the solutions with
+	 * the highest fitness given by the model (where its errors matter most) and the model is
+	 * updated with them, until all the subjective evaluations are given. Only the last
+	 * trainingSetCapacity evaluations are kept; while none was replaced, models which support it
+	 * are updated incrementally instead of trained again.
+	 * @param numberOfInitialEvaluations human evaluations before the first training
+	 * @param retrainingInterval generations between retrainings, 0 asks all the evaluations before the first training
+	 * @param evaluationsPerRetraining human evaluations at each retraining
+	 * @param trainingSetCapacity max number of solutions used to train the model, 0 keeps them all
+	 */
+	public void setRetrainingSchedule(int numberOfInitialEvaluations, int retrainingInterval,
+			int evaluationsPerRetraining, int trainingSetCapacity) {
+		if(retrainingInterval > 0 && (numberOfInitialEvaluations < 1 || evaluationsPerRetraining < 1)){
+			throw new IllegalArgumentException("The initial evaluations and the evaluations per retraining must be positive");
+		}
+		this.numberOfInitialEvaluations = numberOfInitialEvaluations;
+		this.retrainingInterval = retrainingInterval;
+		this.evaluationsPerRetraining = evaluationsPerRetraining;
+		this.trainingSetCapacity = trainingSetCapacity;
+	}
+	/**
+	 * Ask the human evaluations asynchronously: the solver keeps evolving, with the fitness given
+	 * by the model (or by the score only until it is trained) while the answers arrive, and each
+	 * answer is added to the training set and used as the evaluation of its solution from the
+	 * generation in which it arrives. The requests follow the retraining schedule
+	 * (see {@link #setRetrainingSchedule(int, int, int, int)}).
+	 * @param humanEvaluator null asks the evaluations synchronously
+	 */
+	public void setAsynchronousHumanEvaluator(AsynchronousHumanEvaluator humanEvaluator) {
+		this.humanEvaluator = humanEvaluator;
+	}
+	/**
+	 * Save the state of the solver (population, training set, model, counters and random numbers
+	 * streams) every checkpointInterval generations, so an interrupted execution can be continued
+	 * with {@link #resume(File)}. The state is written on a background thread; a checkpoint is skipped
+	 * if the previous one is still being written. Only supported with synchronous human evaluations.
+	 * @param checkpointFile null disables the checkpoints
+	 * @param checkpointInterval generations between checkpoints
+	 */
+	public void setCheckpoint(File checkpointFile, int checkpointInterval) {
+		if(checkpointFile != null && checkpointInterval < 1){
+			throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+		}
+		this.checkpointFile = checkpointFile;
+		this.checkpointInterval = checkpointInterval;
+	}
+	/**
+	 * Set the maximum number of predictions of the learning model kept to avoid predicting
+	 * the same solution again (0 disables the cache)
+	 * @param capacity
+	 */
+	public void setPredictionCacheCapacity(int capacity) {
+		this.predictionCache = capacity > 0 ? new PredictionCache(capacity) : null;
+	}
+	/**
+	 *
+	 * @return the cache of predictions (with its hit and miss counters), null if disabled
+	 */
+	public PredictionCache getPredictionCache() {
+		return predictionCache;
 	}
 	/**
 	 *
-	 * @param classifier
-	 * @return Classifier Model
+	 * @param surrogate MLP (Weka multilayer perceptron), RIDGE, KNN, NN (native multilayer perceptron)
+	 * or AUTO (the most accurate among those fast enough for the number of requirements, see {@link AutoSurrogate})
+	 * @param numberOfRequirements
+	 * @return Learning model
 	 */
-	private Classifier getClassifier(String classifier) {
-		Classifier model = null;
+	static Surrogate getSurrogate(String surrogate, int numberOfRequirements) {
+		Surrogate model = null;
 
-		if(classifier == "MLP"){
-			model = new MultilayerPerceptron();
+		if("MLP".equals(surrogate)){
+			model = new WekaSurrogate(new MultilayerPerceptron(), numberOfRequirements);
+		}
+		else if("RIDGE".equals(surrogate)){
+			model = new RidgeSurrogate(numberOfRequirements);
+		}
+		else if("KNN".equals(surrogate)){
+			model = new KnnSurrogate(5);
+		}
+		else if("NN".equals(surrogate)){
+			model = new NeuralNetworkSurrogate(numberOfRequirements);
+		}
+		else if("AUTO".equals(surrogate)){
+			Surrogate[] candidates = numberOfRequirements <= AUTO_MAX_WEKA_REQUIREMENTS
+					? new Surrogate[]{new RidgeSurrogate(numberOfRequirements), new NeuralNetworkSurrogate(numberOfRequirements),
+							new KnnSurrogate(5), new WekaSurrogate(new MultilayerPerceptron(), numberOfRequirements)}
+					: new Surrogate[]{new RidgeSurrogate(numberOfRequirements), new NeuralNetworkSurrogate(numberOfRequirements),
+							new KnnSurrogate(5)};
+			model = new AutoSurrogate(candidates);
 		}
 
 		return model;
@@ -194,7 +593,7 @@ public class InteractiveGeneticAlgorithm {
 		DataSet dataTest = new DataSet(maxOfEvaluations, numberOfRequirements);
 
 		for (int i = 0; i < 50; i++) {
-			int[] individual = getRandomIndividual(i);
+			long[] individual = getRandomIndividual(i);
 			int she = simulator.getHumanEvaluation(individual);
 			dataTest.insert(individual, she);
 		}
@@ -207,102 +606,538 @@ public class InteractiveGeneticAlgorithm {
 		return meanRelativeAbsoluteError;
 	}
 	/**
-	 * Calculate the bugdet given a percentage of the max possible budget,
-	 * which is the sum of all requirements
-	 * @param budgetPercentage
-	 * @return
+	 * Calculate the bugdet given a percentage of the max possible budget,
+	 * which is the sum of all requirements
+	 * @param budgetPercentage
+	 * @return
+	 */
+	private double calculateBudget(double budgetPercentage){
+		double maxCost = 0;
+
+		for(int i = 0; i <= requirementsCost.length - 1; i++){
+			maxCost += requirementsCost[i];
+		}
+
+		return (budgetPercentage / 100) * maxCost;
+	}
+	/**
+	 * Set the budget as a percentage of the max possible budget
+	 * @param budgetPercentage
+	 */
+	public void setBudgetPercentage(double budgetPercentage) {
+		this.budget = calculateBudget(budgetPercentage);
+	}
+	/**
+	 * Set the number of solutions/individuals (by default twice the number of requirements),
+	 * it must be even since the children are created in pairs
+	 * @param numberOfIndividuals
+	 */
+	public void setNumberOfIndividuals(int numberOfIndividuals) {
+		if(numberOfIndividuals < 2 || numberOfIndividuals % 2 != 0){
+			throw new IllegalArgumentException("The number of individuals must be even and positive: " + numberOfIndividuals);
+		}
+		this.numberOfIndividuals = numberOfIndividuals;
+		this.maxOfEvaluations = numberOfGenerations * numberOfIndividuals;
+	}
+	/**
+	 * Max possible score within the budget, used to normalize the score in the fitness calculating.
+	 * It is computed once per instance and budget and then reused.
+	 * @return
+	 */
+	private double getMaxIndividualScore() {
+		if(maxIndividualScoreBudget != budget){
+			double maxScore = KnapsackBound.getMaxScore(requirementsScore, requirementsCost, budget);
+			maxIndividualScore = maxScore > 0 ? maxScore : 1;
+			maxIndividualScoreBudget = budget;
+		}
+		return maxIndividualScore;
+	}
+	/**
+	 * Public Solve Method
+	 * @return
+	 * @throws Exception
+	 */
+	public HashMap<String, String> solve() throws Exception {
+		initialize();
+
+		return run();
+	}
+	/**
+	 * Continue the execution saved in a checkpoint (see {@link #setCheckpoint(File, int)}) from the
+	 * generation in which it was saved. The solver must be configured as the one which saved it.
+	 * @param checkpointFile
+	 * @return
+	 * @throws Exception
+	 */
+	public HashMap<String, String> resume(File checkpointFile) throws Exception {
+		Surrogate[] checkpointModel = new Surrogate[1];
+		ByteBuffer state = Checkpoint.read(checkpointFile, checkpointModel);
+
+		restore(state, checkpointModel[0]);
+
+		return run();
+	}
+	/**
+	 * Evolve the population until the loop stops, saving the checkpoints
+	 * @return
+	 * @throws Exception
+	 */
+	private HashMap<String, String> run() throws Exception {
+		StoppingReason stoppingReason = null;
+
+		if(checkpointFile != null && humanEvaluator != null){
+			throw new IllegalStateException("Checkpoints are not supported with asynchronous human evaluations");
+		}
+
+		try(Checkpoint checkpoint = checkpointFile != null ? new Checkpoint(checkpointFile) : null){
+			checkpointModel = new byte[0];
+			checkpointModelSamples = 0;
+
+			//Interactive Approach
+			while((stoppingReason = getStoppingReason()) == null){
+				evolve();
+				if(checkpoint != null && generation % checkpointInterval == 0){
+					saveCheckpoint(checkpoint);
+				}
+			}
+		}
+
+		return getResults(stoppingReason);
+	}
+	/**
+	 * Encode the state in the buffer of the checkpoint, with the model serialized again only if it
+	 * changed since the last checkpoint. Skipped if the last checkpoint is still being written.
+	 * @param checkpoint
+	 * @throws Exception
+	 */
+	private void saveCheckpoint(Checkpoint checkpoint) throws Exception {
+		RandomStream[] randomStreams = getRandomStreams();
+		int size = 80 + 16 * randomStreams.length + 2 * Checkpoint.getSize(population) + 6 * 8 * population.length
+				+ Checkpoint.getSize(trainingIndividuals) + 8 * trainingEvaluations.length;
+		ByteBuffer state = checkpoint.getBuffer(size);
+
+		if(state == null){
+			return;
+		}
+
+		state.putInt(numberOfRequirements);
+		state.putInt(population.length);
+		state.putInt(trainingIndividuals.length);
+		state.putInt(generation);
+		state.putInt(evaluationsCounter);
+		state.putInt(numberOfTrainingSamples);
+		state.putInt(numberOfSamplesInModel);
+		state.putInt(lastTrainingGeneration);
+		state.putInt(bestFitnessGeneration);
+		state.putLong(numberOfFitnessEvaluations);
+		state.putLong(numberOfPredictions);
+		state.putLong(numberOfModelPredictions);
+		state.putLong(System.nanoTime() - startTime);
+		state.putDouble(bestFitness);
+		state.putInt(randomStreams.length);
+		for(RandomStream randomStream : randomStreams){
+			state.putLong(randomStream.getSeed());
+			state.putLong(randomStream.getGamma());
+		}
+		Checkpoint.put(state, population);
+		Checkpoint.put(state, populationScores);
+		Checkpoint.put(state, populationCosts);
+		Checkpoint.put(state, children);
+		Checkpoint.put(state, childrenScores);
+		Checkpoint.put(state, childrenCosts);
+		Checkpoint.put(state, fitnessValues);
+		Checkpoint.put(state, predictions);
+		Checkpoint.put(state, trainingIndividuals);
+		Checkpoint.put(state, trainingEvaluations);
+
+		//The model changes only when it is trained with new solutions
+		if(numberOfSamplesInModel > 0 && numberOfSamplesInModel != checkpointModelSamples){
+			checkpointModel = Checkpoint.serialize(model);
+			checkpointModelSamples = numberOfSamplesInModel;
+		}
+		checkpoint.write(checkpointModel);
+	}
+	/**
+	 * Restore the state saved by {@link #saveCheckpoint(Checkpoint)}
+	 * @param state
+	 * @param checkpointModel the model of the checkpoint, null if it was not trained
+	 * @throws Exception
+	 */
+	private void restore(ByteBuffer state, Surrogate checkpointModel) throws Exception {
+		int savedRequirements = state.getInt();
+		int populationSize = state.getInt();
+		int trainingSetSize = state.getInt();
+		int words = Genotype.getNumberOfWords(numberOfRequirements);
+
+		if(savedRequirements != numberOfRequirements || populationSize != numberOfIndividuals){
+			throw new IOException("The checkpoint has " + savedRequirements + " requirements and " + populationSize
+					+ " solutions, the solver " + numberOfRequirements + " and " + numberOfIndividuals);
+		}
+
+		generation = state.getInt();
+		evaluationsCounter = state.getInt();
+		numberOfTrainingSamples = state.getInt();
+		numberOfSamplesInModel = state.getInt();
+		lastTrainingGeneration = state.getInt();
+		bestFitnessGeneration = state.getInt();
+		numberOfFitnessEvaluations = state.getLong();
+		numberOfPredictions = state.getLong();
+		numberOfModelPredictions = state.getLong();
+		startTime = System.nanoTime() - state.getLong();
+		bestFitness = state.getDouble();
+		RandomStream[] randomStreams = new RandomStream[state.getInt()];
+		for(int i = 0; i <= randomStreams.length - 1; i++){
+			randomStreams[i] = new RandomStream(state.getLong(), state.getLong());
+		}
+		setRandomStreams(randomStreams);
+
+		population = new long[populationSize][words];
+		populationScores = new double[populationSize];
+		populationCosts = new double[populationSize];
+		children = new long[populationSize][words];
+		childrenScores = new double[populationSize];
+		childrenCosts = new double[populationSize];
+		fitnessValues = new double[populationSize];
+		predictions = new double[populationSize];
+		trainingIndividuals = new long[trainingSetSize][words];
+		trainingEvaluations = new double[trainingSetSize];
+		Checkpoint.get(state, population);
+		Checkpoint.get(state, populationScores);
+		Checkpoint.get(state, populationCosts);
+		Checkpoint.get(state, children);
+		Checkpoint.get(state, childrenScores);
+		Checkpoint.get(state, childrenCosts);
+		Checkpoint.get(state, fitnessValues);
+		Checkpoint.get(state, predictions);
+		Checkpoint.get(state, trainingIndividuals);
+		Checkpoint.get(state, trainingEvaluations);
+
+		populationOrder = new int[populationSize];
+		for(int i = 0; i <= populationOrder.length - 1; i++){
+			populationOrder[i] = i;
+		}
+		if(checkpointModel != null){
+			model = checkpointModel;
+			evaluator.setModel(model);
+		}
+		if(predictionCache != null){
+			predictionCache.invalidate();
+		}
+		maxIndividualScore = getMaxIndividualScore();
+		humanEvaluations.clear();
+		elitismRate = 0;
+		lastRequestGeneration = 0;
+	}
+	/**
+	 * Results of the execution, once the loop has stopped
+	 * @param stoppingReason
+	 * @return
+	 * @throws Exception
+	 */
+	HashMap<String, String> getResults(StoppingReason stoppingReason) throws Exception {
+		long[] bestIndividual = getBestIndividual();
+		buildResults();
+		runResult = new RunResult(bestIndividual.clone(), numberOfRequirements, getIndividualScore(bestIndividual),
+				getMeanRelativeAbsoluteError(), stoppingReason, generation);
+		results = runResult.toMap();
+		if(evolutionListener != null){
+			evolutionListener.solveCompleted(System.nanoTime() - startTime);
+		}
+		return results;
+	}
+	/**
+	 *
+	 * @return The results of the last execution (the ones returned by {@link #solve()}), null until it stops
+	 */
+	public RunResult getRunResult() {
+		return runResult;
+	}
+	/**
+	 * Make this solver an island sharing the model and the human evaluations budget with others
+	 * (see {@link IslandModel})
+	 * @param sharedSurrogate null makes it a standalone solver
+	 */
+	void setSharedSurrogate(SharedSurrogate sharedSurrogate) {
+		this.sharedSurrogate = sharedSurrogate;
+		this.sharedModelVersion = 0;
+	}
+	/**
+	 * Set the seed of the random numbers: executions with the same seed and the same options give
+	 * the same results, whatever the number of threads evaluating the population
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		setRandomStream(new RandomStream(seed));
+	}
+	/**
+	 * Split the streams of the initialization, of the human evaluations and of the genetic operators
+	 * from the given stream, e.g. the stream of an execution or of an island
+	 * @param randomStream
+	 */
+	void setRandomStream(RandomStream randomStream) {
+		setRandomStreams(new RandomStream[]{randomStream.split(), randomStream.split(), randomStream.split(),
+				randomStream.split(), randomStream.split(), randomStream.split()});
+	}
+	/**
+	 *
+	 * @return The streams of the initialization, of the human evaluations and of the genetic operators
+	 */
+	private RandomStream[] getRandomStreams() {
+		return new RandomStream[]{initializationRandom, samplingRandom, selectionRandom,
+				crossoverRandom, mutationRandom, repairRandom};
+	}
+	private void setRandomStreams(RandomStream[] randomStreams) {
+		initializationRandom = randomStreams[0];
+		samplingRandom = randomStreams[1];
+		selectionRandom = randomStreams[2];
+		crossoverRandom = randomStreams[3];
+		mutationRandom = randomStreams[4];
+		repairRandom = randomStreams[5];
+	}
+	/**
+	 *
+	 * @return The index of the current generation
+	 */
+	int getGeneration() {
+		return generation;
+	}
+	/**
+	 *
+	 * @return The fitness of the best solution given in the results
+	 */
+	double getBestIndividualFitness() {
+		return bestIndividualFitness;
+	}
+	/**
+	 * Copies of the best solutions of the last evaluated generation. The evolution swaps the
+	 * generations after the evaluation, so they are in children while fitnessValues is theirs.
+	 * @param numberOfEmigrants
+	 * @return
+	 */
+	long[][] getEmigrants(int numberOfEmigrants) {
+		int[] best = getBestIndividuals(numberOfEmigrants);
+		long[][] emigrants = new long[best.length][];
+
+		for(int i = 0; i <= best.length - 1; i++){
+			emigrants[i] = children[best[i]].clone();
+		}
+
+		return emigrants;
+	}
+	/**
+	 * Replace a solution of the current population with a copy of the given one
+	 * @param position
+	 * @param individual
+	 */
+	void replaceIndividual(int position, long[] individual) {
+		Genotype.copy(individual, population[position]);
+		populationScores[position] = getIndividualScore(population[position]);
+		populationCosts[position] = calculateCost(population[position]);
+	}
+	/**
+	 *
+	 * @return The number of solutions in the population
+	 */
+	int getPopulationSize() {
+		return population.length;
+	}
+	/**
+	 * Creates the initial population, repaired, and the vectors used along the generations
+	 */
+	void initialize(){
+		startTime = System.nanoTime();
+		int capacity = trainingSetCapacity > 0 ? Math.min(trainingSetCapacity, nSubjectiveEvaluations) : nSubjectiveEvaluations;
+		this.trainingIndividuals = new long[capacity][Genotype.getNumberOfWords(numberOfRequirements)];
+		this.trainingEvaluations = new double[capacity];
+		this.numberOfTrainingSamples = 0;
+		this.numberOfSamplesInModel = 0;
+		this.humanEvaluations.clear();
+
+		maxIndividualScore = getMaxIndividualScore();
+
+		createInitialPopulation();
+		repair(population, populationScores, populationCosts);
+
+		fitnessValues = new double[population.length];
+		predictions = new double[population.length];
+		populationOrder = new int[population.length];
+		for(int i = 0; i <= populationOrder.length - 1; i++){
+			populationOrder[i] = i;
+		}
+		children = new long[population.length][population[0].length];
+		childrenScores = new double[population.length];
+		childrenCosts = new double[population.length];
+
+		elitismRate = 0; // Set elitismRate 0
+		generation = 0;
+		lastTrainingGeneration = 0;
+		lastRequestGeneration = 0;
+		numberOfFitnessEvaluations = 0;
+		bestFitness = -Double.MAX_VALUE;
+		bestFitnessGeneration = 0;
+	}
+	/**
+	 *
+	 * @return The reason to stop before the next generation, null to go on
+	 */
+	StoppingReason getStoppingReason(){
+		if(generation >= numberOfGenerations){
+			return StoppingReason.MAX_GENERATIONS;
+		}
+		if(maxOfFitnessEvaluations > 0 && numberOfFitnessEvaluations + population.length > maxOfFitnessEvaluations){
+			return StoppingReason.EVALUATION_BUDGET;
+		}
+		if(timeLimit > 0 && System.nanoTime() - startTime >= timeLimit * 1000000L){
+			return StoppingReason.DEADLINE;
+		}
+		if(stagnationWindow > 0 && generation - bestFitnessGeneration >= stagnationWindow){
+			return StoppingReason.STAGNATION;
+		}
+		if(minimumDiversity > 0 && getDiversity() < minimumDiversity){
+			return StoppingReason.DIVERSITY_COLLAPSE;
+		}
+		return null;
+	}
+	/**
+	 * Keep the best fitness of the evaluated population if it improves the best one found so far
 	 */
-	private double calculateBudget(double budgetPercentage){
-		double maxCost = 0;
+	private void updateBestFitness(){
+		double generationBestFitness = -Double.MAX_VALUE;
 
-		for(int i = 0; i <= requirementsCost.length - 1; i++){
-			maxCost += requirementsCost[i];
+		for(int i = 0; i <= fitnessValues.length - 1; i++){
+			generationBestFitness = Math.max(generationBestFitness, fitnessValues[i]);
 		}
 
-		return (budgetPercentage / 100) * maxCost;
-	}
-	/**
-	 * Public Solve Method
-	 * @return
-	 * @throws Exception
-	 */
-	public HashMap<String, String> solve() throws Exception {
-		return solve(true);
+		if(generationBestFitness > bestFitness + stagnationTolerance * Math.abs(bestFitness)){
+			bestFitness = generationBestFitness;
+			bestFitnessGeneration = generation;
+		}
 	}
 	/**
-	 * The private solve method can be used to get the max possible score returned by the Non-Interactive
-	 * Approach. That's done because the need of normalizing the score and subjective evaluation in
-	 * the fitness calculating
-	 * @param getMaxScore
+	 * Diversity of the population: the mean Hamming distance between two solutions, divided by
+	 * the number of requirements (from 0, all solutions equal, to about 0.5). It is computed from
+	 * the number of solutions including each requirement, in O(number of included requirements).
 	 * @return
-	 * @throws Exception
 	 */
-	private HashMap<String, String> solve(boolean getMaxScore) throws Exception{
+	double getDiversity(){
+		int n = population.length;
+		double sumOfDistances = 0;
+
+		if(requirementCounts == null || requirementCounts.length != numberOfRequirements){
+			requirementCounts = new int[numberOfRequirements];
+		}
+		Arrays.fill(requirementCounts, 0);
+
+		for(int i = 0; i <= n - 1; i++){
+			long[] individual = population[i];
 
-		this.dataSet = new DataSet(maxOfEvaluations, numberOfRequirements);
-		results = new HashMap<String, String>();
-		Long p = System.currentTimeMillis();
+			for(int w = 0; w <= individual.length - 1; w++){
+				long word = individual[w];
+
+				while(word != 0){
+					requirementCounts[w * Genotype.WORD_SIZE + Long.numberOfTrailingZeros(word)]++;
+					word &= word - 1;
+				}
+			}
+		}
 
-		if(getMaxScore) {
-			double[] backupParameters = getParameters();
-			double[] temporaryParameters = {1,0}; //Only Score
-			setParameters(temporaryParameters);
-			maxIndividualScore = 1;
-			HashMap<String, String> temporaryResults = solve(false);
-			setParameters(backupParameters);
-			maxIndividualScore = Double.parseDouble(temporaryResults.get("bestIndividualScore"));
+		//Each requirement adds one to the distance of each pair with one solution including it
+		for(int j = 0; j <= numberOfRequirements - 1; j++){
+			sumOfDistances += (double) requirementCounts[j] * (n - requirementCounts[j]);
 		}
 
+		return n > 1 ? sumOfDistances / ((double) n * (n - 1) / 2) / numberOfRequirements : 0;
+	}
+	/**
+	 * Evolves the current population by one generation: evaluation, selection, crossover,
+	 * mutation and repair of the offspring, which becomes the population
+	 * @throws Exception
+	 */
+	void evolve() throws Exception {
 		int parent1 = 0;
 		int parent2 = 0;
-		int[] bestIndividual = null;
 		int numberOfEliteIndividuals = 0;
+		int evaluationsAtStart = evaluationsCounter;
+		long predictionsAtStart = numberOfPredictions;
+		long modelPredictionsAtStart = numberOfModelPredictions;
+		long allocatedBytesAtStart = 0;
+		long start = 0;
+		long time = 0;
+
+		if(evolutionListener != null){
+			generationMetrics.reset(generation);
+			allocatedBytesAtStart = GenerationMetrics.getCurrentThreadAllocatedBytes();
+			start = System.nanoTime();
+		}
 
-		createInitialPopulation();
-		repair(population);
-
-		fitnessValues = new double[population.length];
-		int[][] children = new int[population.length][population[0].length];
-
-		double aux = elitismRate; //Backup the elitismRate
-		elitismRate = 0; // Set elitismRate 0
+		calculateFitnessPopulation();
+		numberOfFitnessEvaluations += population.length;
+		if(stagnationWindow > 0){
+			updateBestFitness();
+		}
 
+		time = now();
+		numberOfEliteIndividuals = getNumberOfEliteIndividuals();
+		cloneEliteIndividuals(numberOfEliteIndividuals);
 
-		//Interactive Approach
-		for(int j = 0; j < numberOfGenerations; j++){
-			calculateFitnessPopulation();
+		for(int k = numberOfEliteIndividuals; k <= population.length - 1; k = k + 2){
+			parent1 = tournamentSelection();
+			parent2 = tournamentSelection();
 
-			numberOfEliteIndividuals = getNumberOfEliteIndividuals();
-			cloneEliteIndividuals(children, numberOfEliteIndividuals);
+			crossover(parent1, parent2, k);
 
-			for(int k = numberOfEliteIndividuals; k <= population.length - 1; k = k + 2){
-				parent1 = tournamentSelection();
-				parent2 = tournamentSelection();
+			mutate(k);
+			mutate(k + 1);
+		}
+		time = lap(GenerationMetrics.Phase.REPRODUCTION, time);
 
-				crossover(parent1, parent2, children, k);
+		repair(children, childrenScores, childrenCosts);
+		lap(GenerationMetrics.Phase.REPAIR, time);
+		if(verifyIncrementalEvaluation){
+			verifyIncrementalEvaluation(children, childrenScores, childrenCosts);
+		}
+		swapGenerations();
 
-				mutate(children[k]);
-				mutate(children[k + 1]);
+		if(evolutionListener != null){
+			generationMetrics.setGenerationTime(System.nanoTime() - start);
+			if(allocatedBytesAtStart >= 0){
+				generationMetrics.setAllocatedBytes(GenerationMetrics.getCurrentThreadAllocatedBytes() - allocatedBytesAtStart);
 			}
-
-			repair(children);
-			cloneChildrenToPopulation(children);
+			generationMetrics.setHumanEvaluations(evaluationsCounter - evaluationsAtStart);
+			generationMetrics.setPredictions(numberOfPredictions - predictionsAtStart, numberOfModelPredictions - modelPredictionsAtStart);
+			generationMetrics.setFitness(fitnessValues);
+			evolutionListener.generationCompleted(generationMetrics);
 		}
-		bestIndividual = getBestIndividual();
-		buildResults();
-		results.put("bestIndividual", getStringIndividual(bestIndividual));
-		results.put("bestIndividualScore", getIndividualScore(bestIndividual) + "");
-		results.put("meanRelativeAbsoluteError", getMeanRelativeAbsoluteError()+"");
-		p = System.currentTimeMillis() - p;
-		System.out.println(" Time: "+p);
-		return results;
+		generation++;
+	}
+	/**
+	 *
+	 * @return The current time in nanoseconds if the metrics are enabled, else 0
+	 */
+	private long now() {
+		return evolutionListener != null ? System.nanoTime() : 0;
+	}
+	/**
+	 * Add to the phase the time elapsed since the given time, if the metrics are enabled
+	 * @param phase
+	 * @param since given by {@link #now()} or by the previous lap
+	 * @return The current time in nanoseconds if the metrics are enabled, else 0
+	 */
+	private long lap(GenerationMetrics.Phase phase, long since) {
+		if(evolutionListener == null){
+			return 0;
+		}
+		long now = System.nanoTime();
+
+		generationMetrics.addPhaseTime(phase, now - since);
+		return now;
 	}
 
 	/**
 	 * Method Used to create the initial Population
 	 */
 	private void createInitialPopulation(){
-		population = new int[numberOfIndividuals][numberOfRequirements];
+		population = new long[numberOfIndividuals][];
 
 		for(int i = 0; i <= population.length - 1; i++){
 			population[i] = getRandomIndividual(i);
@@ -311,14 +1146,22 @@ public class InteractiveGeneticAlgorithm {
 		if (numberOfIndividuals >= numberOfRequirements) {
 			for (int i = 0; i < numberOfIndividuals; i++) {
 				int position = getPositionByIndividualIndex(i);
-				population[i][position] = 1;
+				Genotype.include(population[i], position);
 			}
 		} else {
 			for (int i = 0; i < numberOfRequirements; i++) {
 				int position = getPositionByRequirementIndex(i);
-				population[position][i] = 1;
+				Genotype.include(population[position], i);
 			}
 		}
+
+		populationScores = new double[numberOfIndividuals];
+		populationCosts = new double[numberOfIndividuals];
+
+		for(int i = 0; i <= population.length - 1; i++){
+			populationScores[i] = getIndividualScore(population[i]);
+			populationCosts[i] = calculateCost(population[i]);
+		}
 	}
 	/**
 	 *
@@ -333,24 +1176,25 @@ public class InteractiveGeneticAlgorithm {
 		return requirementIndex % numberOfIndividuals;
 	}
 	/**
-	 * Solution Maker Method
+	 * Solution Maker Method: a random number of distinct random requirements is included,
+	 * sampled with Floyd's algorithm (one random number per requirement, no retries)
 	 * @param requirementToBeIncluded
 	 * @return
 	 */
-	private int[] getRandomIndividual(int requirementToBeIncluded){
+	private long[] getRandomIndividual(int requirementToBeIncluded){
 		int numberOfRequirements = requirementsScore.length;
-		int[] randomIndividual = new int[numberOfRequirements];
-		int numberOfRequirementsToBeIncluded = random.nextInt(numberOfRequirements) + 1;
+		long[] randomIndividual = Genotype.newIndividual(numberOfRequirements);
+		int numberOfRequirementsToBeIncluded = initializationRandom.nextInt(numberOfRequirements) + 1;
 		int randomRequirement = 0;
 
-		for(int i = 0; i <= numberOfRequirementsToBeIncluded - 1; i++){
-			randomRequirement = random.nextInt(numberOfRequirements);
+		for(int i = numberOfRequirements - numberOfRequirementsToBeIncluded; i <= numberOfRequirements - 1; i++){
+			randomRequirement = initializationRandom.nextInt(i + 1);
 
-			while(randomIndividual[randomRequirement] == 1){
-				randomRequirement = random.nextInt(numberOfRequirements);
+			if(Genotype.isIncluded(randomIndividual, randomRequirement)){
+				randomRequirement = i;
 			}
 
-			randomIndividual[randomRequirement] = 1;
+			Genotype.include(randomIndividual, randomRequirement);
 		}
 
 		return randomIndividual;
@@ -359,49 +1203,328 @@ public class InteractiveGeneticAlgorithm {
 	 * Calculates Fitness Of all solutions in population vector
 	 * @throws Exception
 	 */
-	private  void calculateFitnessPopulation() throws Exception{
+	void calculateFitnessPopulation() throws Exception{
 		int she;
+		long time = now();
 		//Non-Interactive Evaluation
 		if (parameters[1] == 0) {
 
-			for(int i = 0; i <= population.length - 1; i++){
-				she = 0;
-				fitnessValues[i] = calculateFitness(population[i], she);
-			}
+			evaluator.evaluate(0, population.length, (worker, from, to) -> {
+				for(int i = from; i <= to - 1; i++){
+					fitnessValues[i] = calculateFitness(i, 0);
+				}
+			});
+			lap(GenerationMetrics.Phase.FITNESS, time);
 
 		}
-		else if (evaluationsCounter < nSubjectiveEvaluations) { //For Feedback Generation
+		else if (sharedSurrogate != null) {
+			calculateFitnessPopulationOnIsland();
+		}
+		else if (humanEvaluator != null) {
+			calculateFitnessPopulationAsynchronously();
+		}
+		else if (evaluationsCounter < getNumberOfInitialEvaluations()) { //For Feedback Generation
+			int numberOfInitialEvaluations = getNumberOfInitialEvaluations();
 			int[] populationIndices = suffleIndices(numberOfIndividuals);
 			int i = 0;
-			for (; evaluationsCounter < nSubjectiveEvaluations && i < numberOfIndividuals; i++) {
+			for (; evaluationsCounter < numberOfInitialEvaluations && i < numberOfIndividuals; i++) {
 				evaluationsCounter++;
 				int index = populationIndices[i];
 				she = simulator.getHumanEvaluation(population[index]);
-				dataSet.insert(population[index], she);
-				fitnessValues[index] = calculateFitness(population[index], she);
+				addTrainingSample(population[index], she);
+				fitnessValues[index] = calculateFitness(index, she);
 			}
+			time = lap(GenerationMetrics.Phase.HUMAN_EVALUATION, time);
 
-			if(evaluationsCounter == nSubjectiveEvaluations) {
-				model.buildClassifier(dataSet.getDataSet());
-				dataSet = new DataSet(maxOfEvaluations, numberOfRequirements);
+			if(evaluationsCounter == numberOfInitialEvaluations) {
+				updateModel();
+				time = lap(GenerationMetrics.Phase.TRAINING, time);
 			}
 
+			predict(populationIndices, i);
+			time = lap(GenerationMetrics.Phase.PREDICTION, time);
+
 			for(; i < population.length; i++){
 				int index = populationIndices[i];
-				she = (int) model.classifyInstance(dataSet.getInstance(population[index]));
-				fitnessValues[index] = calculateFitness(population[index], she);
+				fitnessValues[index] = calculateFitness(index, (int) predictions[index]);
 			}
+			lap(GenerationMetrics.Phase.FITNESS, time);
 
 		} else {
 
+			predict(populationOrder, 0);
+			time = lap(GenerationMetrics.Phase.PREDICTION, time);
+
 			for(int j = 0; j <= population.length - 1; j++){
-				she = (int) model.classifyInstance(dataSet.getInstance(population[j]));
-				fitnessValues[j] = calculateFitness(population[j], she);
+				fitnessValues[j] = calculateFitness(j, (int) predictions[j]);
 			}
+			lap(GenerationMetrics.Phase.FITNESS, time);
 
+			if(retrainingInterval > 0 && evaluationsCounter < nSubjectiveEvaluations
+					&& generation - lastTrainingGeneration >= retrainingInterval){
+				retrain();
+			}
 		}
 		//she = simulator.getHumanEvaluation(individual);
 	}
+	/**
+	 *
+	 * @return The number of human evaluations asked before the first training
+	 */
+	private int getNumberOfInitialEvaluations() {
+		return retrainingInterval > 0 ? Math.min(numberOfInitialEvaluations, nSubjectiveEvaluations) : nSubjectiveEvaluations;
+	}
+	/**
+	 *
+	 * @return The number of solutions in the training set
+	 */
+	private int getTrainingSetSize() {
+		return Math.min(numberOfTrainingSamples, trainingIndividuals.length);
+	}
+	/**
+	 * Store a copy of a solution evaluated by the human in the training set, replacing the oldest one if it is full
+	 * @param individual
+	 * @param she
+	 */
+	private void addTrainingSample(long[] individual, double she) {
+		int position = numberOfTrainingSamples % trainingIndividuals.length;
+
+		Genotype.copy(individual, trainingIndividuals[position]);
+		trainingEvaluations[position] = she;
+		numberOfTrainingSamples++;
+	}
+	/**
+	 * The human evaluates the solutions with the highest fitness given by the model, whose fitness
+	 * is computed again with the human evaluation, and the model is updated with them
+	 * @throws Exception
+	 */
+	private void retrain() throws Exception {
+		int[] queries = getQueries();
+		int samplesAtStart = numberOfTrainingSamples;
+		long time = now();
+
+		for(int i = 0; i <= queries.length - 1; i++){
+			int index = queries[i];
+			int she = simulator.getHumanEvaluation(population[index]);
+
+			evaluationsCounter++;
+			addTrainingSample(population[index], she);
+			fitnessValues[index] = calculateFitness(index, she);
+		}
+		time = lap(GenerationMetrics.Phase.HUMAN_EVALUATION, time);
+		if(numberOfTrainingSamples == samplesAtStart){
+			return;
+		}
+
+		updateModel();
+		lap(GenerationMetrics.Phase.TRAINING, time);
+	}
+	/**
+	 * A solution is asked once per batch and never while it is in the training set: once the
+	 * population converges many of the best solutions are copies of the same one
+	 * @return The distinct solutions with the highest fitness, at most as many as the human evaluations asked at a retraining
+	 */
+	private int[] getQueries() {
+		int[] candidates = getBestIndividuals(population.length);
+		int[] queries = new int[Math.min(evaluationsPerRetraining, nSubjectiveEvaluations - evaluationsCounter)];
+		HashSet<PredictionCache.Key> known = new HashSet<PredictionCache.Key>();
+		int numberOfQueries = 0;
+
+		for(int i = 0; i <= getTrainingSetSize() - 1; i++){
+			known.add(new PredictionCache.Key().wrap(trainingIndividuals[i]));
+		}
+		for(int i = 0; i <= candidates.length - 1 && numberOfQueries < queries.length; i++){
+			if(known.add(new PredictionCache.Key().wrap(population[candidates[i]]))){
+				queries[numberOfQueries] = candidates[i];
+				numberOfQueries++;
+			}
+		}
+
+		return Arrays.copyOf(queries, numberOfQueries);
+	}
+	/**
+	 *
+	 * @param numberOfIndividuals
+	 * @return The indices of the solutions with the highest fitness, at most the given number
+	 */
+	private int[] getBestIndividuals(int numberOfIndividuals) {
+		int numberOfCandidates = 0;
+
+		//Only solutions with positive fitness are elite (see getEliteIndividuals)
+		for(int j = 0; j <= fitnessValues.length - 1; j++){
+			if(fitnessValues[j] > 0){
+				numberOfCandidates++;
+			}
+		}
+
+		return getEliteIndividuals(Math.min(numberOfIndividuals, numberOfCandidates));
+	}
+	/**
+	 * Calculates the fitness of all solutions of an island: the last model published by the
+	 * islands is copied if it changed, the solutions are evaluated with its predictions (the score
+	 * only while there is none), and the human evaluates the solutions granted by the shared
+	 * budget, chosen randomly in the first generation and by highest fitness afterwards. Their
+	 * evaluations are given to the shared model.
+	 * @throws Exception
+	 */
+	private void calculateFitnessPopulationOnIsland() throws Exception {
+		long time = now();
+		long version = sharedSurrogate.getVersion();
+
+		if(version != sharedModelVersion){
+			evaluator.setModel(sharedSurrogate.copyModel());
+			sharedModelVersion = version;
+			time = lap(GenerationMetrics.Phase.TRAINING, time);
+		}
+
+		if(sharedModelVersion > 0){
+			predict(populationOrder, 0);
+			time = lap(GenerationMetrics.Phase.PREDICTION, time);
+		}
+
+		for(int j = 0; j <= population.length - 1; j++){
+			fitnessValues[j] = calculateFitness(j, sharedModelVersion > 0 ? (int) predictions[j] : 0);
+		}
+		time = lap(GenerationMetrics.Phase.FITNESS, time);
+
+		int numberOfEvaluations = sharedSurrogate.acquireEvaluations(
+				Math.min(sharedSurrogate.getEvaluationsOfGeneration(generation), population.length));
+		if(numberOfEvaluations == 0){
+			return;
+		}
+
+		int[] queries = generation == 0 ? suffleIndices(population.length) : getBestIndividuals(numberOfEvaluations);
+		int numberOfQueries = Math.min(numberOfEvaluations, queries.length);
+		long[][] individuals = new long[numberOfQueries][];
+		int[] evaluations = new int[numberOfQueries];
+
+		sharedSurrogate.releaseEvaluations(numberOfEvaluations - numberOfQueries);
+		for(int i = 0; i <= numberOfQueries - 1; i++){
+			int index = queries[i];
+
+			individuals[i] = population[index];
+			evaluations[i] = simulator.getHumanEvaluation(population[index]);
+			fitnessValues[index] = calculateFitness(index, evaluations[i]);
+			evaluationsCounter++;
+		}
+		time = lap(GenerationMetrics.Phase.HUMAN_EVALUATION, time);
+
+		sharedSurrogate.addSamples(individuals, evaluations, numberOfQueries);
+		lap(GenerationMetrics.Phase.TRAINING, time);
+	}
+	/**
+	 *
+	 * @return False while the model was not trained yet, when it is trained along the evolution
+	 */
+	private boolean isModelAvailable() {
+		if(sharedSurrogate != null){
+			return sharedModelVersion > 0;
+		}
+		if(humanEvaluator != null){
+			return numberOfSamplesInModel > 0;
+		}
+		return true;
+	}
+	/**
+	 * Train the model with the training set, or update it with the solutions added since the last
+	 * training if the model supports it and none was replaced
+	 * @throws Exception
+	 */
+	private void updateModel() throws Exception {
+		if(numberOfSamplesInModel > 0 && model.isUpdateable() && numberOfTrainingSamples <= trainingIndividuals.length){
+			for(int i = numberOfSamplesInModel; i <= numberOfTrainingSamples - 1; i++){
+				model.update(trainingIndividuals[i], trainingEvaluations[i]);
+			}
+		}
+		else{
+			model.train(trainingIndividuals, trainingEvaluations, getTrainingSetSize());
+		}
+		evaluator.setModel(model);
+		numberOfSamplesInModel = numberOfTrainingSamples;
+		lastTrainingGeneration = generation;
+	}
+	/**
+	 * Calculates the fitness of all solutions when the human answers asynchronously: the answers
+	 * arrived since the last generation are added to the training set, the model is trained or
+	 * updated with them, and each solution is evaluated with its human evaluation if it is known,
+	 * else with the prediction of the model (the score only while it is not trained). Then the next
+	 * solutions are sent to the human, without waiting the answers.
+	 * @throws Exception
+	 */
+	private void calculateFitnessPopulationAsynchronously() throws Exception {
+		int numberOfInitialEvaluations = getNumberOfInitialEvaluations();
+		AsynchronousHumanEvaluator.Answer answer;
+		long time = now();
+
+		while((answer = humanEvaluator.poll()) != null){
+			addTrainingSample(answer.getIndividual(), answer.getEvaluation());
+			humanEvaluations.put(new PredictionCache.Key().wrap(answer.getIndividual()), answer.getEvaluation());
+		}
+		time = lap(GenerationMetrics.Phase.HUMAN_EVALUATION, time);
+
+		if(numberOfSamplesInModel == 0 ? numberOfTrainingSamples >= numberOfInitialEvaluations
+				: numberOfTrainingSamples > numberOfSamplesInModel
+					&& generation - lastTrainingGeneration >= Math.max(1, retrainingInterval)){
+			updateModel();
+			time = lap(GenerationMetrics.Phase.TRAINING, time);
+		}
+
+		if(numberOfSamplesInModel > 0){
+			predict(populationOrder, 0);
+			time = lap(GenerationMetrics.Phase.PREDICTION, time);
+		}
+
+		for(int j = 0; j <= population.length - 1; j++){
+			Integer she = humanEvaluations.get(probe.wrap(population[j]));
+
+			if(she == null){
+				she = numberOfSamplesInModel > 0 ? (int) predictions[j] : 0;
+			}
+			fitnessValues[j] = calculateFitness(j, she);
+		}
+		probe.wrap(null);
+		time = lap(GenerationMetrics.Phase.FITNESS, time);
+
+		if(evaluationsCounter < numberOfInitialEvaluations){
+			int[] populationIndices = suffleIndices(numberOfIndividuals);
+
+			for(int i = 0; evaluationsCounter < numberOfInitialEvaluations && i < numberOfIndividuals; i++){
+				humanEvaluator.request(population[populationIndices[i]]);
+				evaluationsCounter++;
+			}
+			lastRequestGeneration = generation;
+		}
+		else if(retrainingInterval > 0 && evaluationsCounter < nSubjectiveEvaluations
+				&& generation - lastRequestGeneration >= retrainingInterval){
+			int[] queries = getQueries();
+
+			for(int i = 0; i <= queries.length - 1; i++){
+				humanEvaluator.request(population[queries[i]]);
+				evaluationsCounter++;
+			}
+			lastRequestGeneration = generation;
+		}
+		lap(GenerationMetrics.Phase.HUMAN_EVALUATION, time);
+	}
+	/**
+	 * Stores in predictions the evaluations given by the learning model to the solutions
+	 * population[indices[j]], for j from the given position to the end of indices
+	 * @param indices
+	 * @param from
+	 * @throws Exception
+	 */
+	private void predict(int[] indices, int from) throws Exception{
+		numberOfPredictions += indices.length - from;
+		if(predictionCache != null){
+			long misses = predictionCache.getMisses();
+			predictionCache.predict(evaluator, population, indices, from, indices.length, predictions);
+			numberOfModelPredictions += predictionCache.getMisses() - misses;
+		}
+		else{
+			evaluator.predict(population, indices, from, indices.length, predictions);
+			numberOfModelPredictions += indices.length - from;
+		}
+	}
 	/**
 	 * Create a vector with distinct numbers from 0 to parameter given shuffled
 	 * @param numberOfIndividuals
@@ -415,7 +1538,7 @@ public class InteractiveGeneticAlgorithm {
 		}
 
 		for (int i = 0; i < indices.length; i++) {
-			int index2 = random.nextInt(numberOfIndividuals);;
+			int index2 = samplingRandom.nextInt(numberOfIndividuals);;
 			int aux;
 
 			//swap
@@ -428,35 +1551,29 @@ public class InteractiveGeneticAlgorithm {
 	}
 	/**
 	 * Calculates Individual Fitness
-	 * @param individual
+	 * @param individualIndex index of the individual in population
 	 * @param she
 	 * @return
 	 * @throws Exception
 	 */
-	private double calculateFitness(int[] individual, int she) throws Exception{
-		return (parameters[0] * getNormalizedIndividualScore(individual)) + (parameters[1] * she);
+	private double calculateFitness(int individualIndex, int she) throws Exception{
+		return (parameters[0] * getNormalizedIndividualScore(populationScores[individualIndex])) + (parameters[1] * she);
 	}
 	/**
 	 * Normalizes score
-	 * @param individual
+	 * @param individualScore
 	 * @return
 	 */
-	private double getNormalizedIndividualScore(int[] individual){
-		return (getIndividualScore(individual)/maxIndividualScore) * simulator.getMaxHumanEvaluation();
+	private double getNormalizedIndividualScore(double individualScore){
+		return (individualScore/maxIndividualScore) * simulator.getMaxHumanEvaluation();
 	}
 	/**
 	 * Calculate Individual Score
 	 * @param individual
 	 * @return
 	 */
-	private double getIndividualScore(int[] individual){
-		double individualScore = 0;
-
-		for(int i = 0; i <= individual.length - 1; i++){
-			individualScore += individual[i] * requirementsScore[i];
-		}
-
-		return individualScore;
+	double getIndividualScore(long[] individual){
+		return Genotype.getWeightedSum(individual, requirementsScore);
 	}
 	/**
 	 * Get Number Of Elite individuals/solutions
@@ -477,56 +1594,115 @@ public class InteractiveGeneticAlgorithm {
 	 * @param children
 	 * @param numberOfEliteIndividuals
 	 */
-	private void cloneEliteIndividuals (int[][] children, int numberOfEliteIndividuals) {
+	private void cloneEliteIndividuals (int numberOfEliteIndividuals) {
 		if(numberOfEliteIndividuals > 0){
-			int[][] eliteIndividuals = getEliteIndividuals(numberOfEliteIndividuals);
+			int[] eliteIndividuals = getEliteIndividuals(numberOfEliteIndividuals);
 
 			for(int i = 0; i <= numberOfEliteIndividuals - 1; i++){
-				for(int j = 0; j <= population[0].length - 1; j++){
-					children[i][j] = eliteIndividuals[i][j];
-				}
+				Genotype.copy(population[eliteIndividuals[i]], children[i]);
+				childrenScores[i] = populationScores[eliteIndividuals[i]];
+				childrenCosts[i] = populationCosts[eliteIndividuals[i]];
 			}
 		}
 	}
 	/**
-	 * Return The Best individual given the parameter
+	 * Return The indices of the Best individuals given the parameter, from the best one. Only
+	 * individuals with positive fitness are elite, the remaining positions are the first individual.
+	 * The individuals are selected in one pass keeping the best ones found in a heap, O(N log E).
 	 * @param numberOfEliteIndividuals
 	 * @return
 	 */
-	private int[][] getEliteIndividuals(int numberOfEliteIndividuals){
-		int[][] eliteIndividuals = new int[numberOfEliteIndividuals][population[0].length];
-		int[] eliteFlag = new int[population.length];
-		double bestFitnessValue;
-		int eliteIndividualIndex;
-
-		for(int i = 0; i <= eliteIndividuals.length - 1; i++){
-			bestFitnessValue = 0;
-			eliteIndividualIndex = 0;
-
-			for(int j = 0; j <= fitnessValues.length - 1; j++){
-				if(fitnessValues[j] > bestFitnessValue && eliteFlag[j] == 0){
-					bestFitnessValue = fitnessValues[j];
-					eliteIndividualIndex = j;
-				}
+	private int[] getEliteIndividuals(int numberOfEliteIndividuals){
+		int[] eliteIndividuals = new int[numberOfEliteIndividuals];
+		//Heap whose root is the worst elite individual found so far
+		int[] heap = new int[numberOfEliteIndividuals];
+		int heapSize = 0;
+
+		for(int j = 0; j <= fitnessValues.length - 1; j++){
+			if(fitnessValues[j] <= 0){
+				continue;
 			}
 
-			for(int j = 0; j <= population[0].length - 1; j++){
-				eliteIndividuals[i][j] = population[eliteIndividualIndex][j];
+			if(heapSize < heap.length){
+				heap[heapSize] = j;
+				siftUp(heap, heapSize);
+				heapSize++;
 			}
+			else if(isBetterIndividual(j, heap[0])){
+				heap[0] = j;
+				siftDown(heap, heapSize, 0);
+			}
+		}
 
-			eliteFlag[eliteIndividualIndex] = 1;
+		//The worst elite individuals are removed first
+		for(int i = heapSize - 1; i >= 0; i--){
+			eliteIndividuals[i] = heap[0];
+			heap[0] = heap[i];
+			siftDown(heap, i, 0);
 		}
 
 		return eliteIndividuals;
 	}
+	/**
+	 *
+	 * @param individual1
+	 * @param individual2
+	 * @return True if the first individual has greater fitness, or the same fitness and lower index
+	 */
+	private boolean isBetterIndividual(int individual1, int individual2){
+		return fitnessValues[individual1] > fitnessValues[individual2]
+			|| (fitnessValues[individual1] == fitnessValues[individual2] && individual1 < individual2);
+	}
+	/**
+	 * Move up the element at the given position of the heap of elite individuals
+	 * @param heap
+	 * @param position
+	 */
+	private void siftUp(int[] heap, int position){
+		int individual = heap[position];
+
+		while(position > 0){
+			int parent = (position - 1) / 2;
+
+			if(!isBetterIndividual(heap[parent], individual)){
+				break;
+			}
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = individual;
+	}
+	/**
+	 * Move down the element at the given position of the heap of elite individuals
+	 * @param heap
+	 * @param heapSize
+	 * @param position
+	 */
+	private void siftDown(int[] heap, int heapSize, int position){
+		int individual = heap[position];
+
+		while(2 * position + 1 < heapSize){
+			int child = 2 * position + 1;
+
+			if(child + 1 < heapSize && isBetterIndividual(heap[child], heap[child + 1])){
+				child++;
+			}
+			if(!isBetterIndividual(individual, heap[child])){
+				break;
+			}
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = individual;
+	}
 	/**
 	 * Binary Tournament Selection Method
 	 * @return A solution or an individual
 	 */
-	private int tournamentSelection(){
+	int tournamentSelection(){
 		int parent = 0;
-		int contestant1 = random.nextInt(population.length);
-		int contestant2 = random.nextInt(population.length);
+		int contestant1 = selectionRandom.nextInt(population.length);
+		int contestant2 = selectionRandom.nextInt(population.length);
 
 		if(fitnessValues[contestant1] >= fitnessValues[contestant2]){
 			parent = contestant1;
@@ -538,154 +1714,250 @@ public class InteractiveGeneticAlgorithm {
 		return parent;
 	}
 	/**
-	 * Single Point Crossover
+	 * Single Point Crossover. The scores and costs of the children are obtained from the ones
+	 * of the parents by exchanging the sums over the shorter side of the cut
 	 * @param indexParent1
 	 * @param indexParent2
-	 * @param children
 	 * @param childrenPosition
 	 */
-	private void crossover(int indexParent1, int indexParent2, int[][] children, int childrenPosition){
-		int[] parent1 = population[indexParent1];
-		int[] parent2 = population[indexParent2];
+	void crossover(int indexParent1, int indexParent2, int childrenPosition){
+		long[] parent1 = population[indexParent1];
+		long[] parent2 = population[indexParent2];
 		int pointCut = 0;
 
-		if (random.nextDouble() <= (crossoverProbability / 100)) {
-			pointCut = random.nextInt(parent1.length);
+		if (crossoverRandom.nextDouble() <= (crossoverProbability / 100)) {
+			pointCut = crossoverRandom.nextInt(numberOfRequirements);
 
-			for(int i = 0; i <= pointCut; i++){
-				children[childrenPosition][i] = parent1[i];
-				children[childrenPosition + 1][i] = parent2[i];
-			}
+			Genotype.splice(parent1, parent2, pointCut, children[childrenPosition]);
+			Genotype.splice(parent2, parent1, pointCut, children[childrenPosition + 1]);
 
-			for(int i = pointCut + 1; i <= parent1.length - 1; i++){
-				children[childrenPosition][i] = parent2[i];
-				children[childrenPosition + 1][i] = parent1[i];
-			}
+			//Requirements after the cut are exchanged, [from, to) is the shorter side
+			boolean exchangeTail = numberOfRequirements - 1 - pointCut <= pointCut + 1;
+			int from = exchangeTail ? pointCut + 1 : 0;
+			int to = exchangeTail ? numberOfRequirements : pointCut + 1;
 
+			double segmentScore1 = Genotype.getWeightedSum(parent1, requirementsScore, from, to);
+			double segmentScore2 = Genotype.getWeightedSum(parent2, requirementsScore, from, to);
+			double segmentCost1 = Genotype.getWeightedSum(parent1, requirementsCost, from, to);
+			double segmentCost2 = Genotype.getWeightedSum(parent2, requirementsCost, from, to);
+
+			if(exchangeTail){
+				childrenScores[childrenPosition] = populationScores[indexParent1] - segmentScore1 + segmentScore2;
+				childrenScores[childrenPosition + 1] = populationScores[indexParent2] - segmentScore2 + segmentScore1;
+				childrenCosts[childrenPosition] = populationCosts[indexParent1] - segmentCost1 + segmentCost2;
+				childrenCosts[childrenPosition + 1] = populationCosts[indexParent2] - segmentCost2 + segmentCost1;
+			}
+			else{
+				childrenScores[childrenPosition] = populationScores[indexParent2] - segmentScore2 + segmentScore1;
+				childrenScores[childrenPosition + 1] = populationScores[indexParent1] - segmentScore1 + segmentScore2;
+				childrenCosts[childrenPosition] = populationCosts[indexParent2] - segmentCost2 + segmentCost1;
+				childrenCosts[childrenPosition + 1] = populationCosts[indexParent1] - segmentCost1 + segmentCost2;
+			}
 		}
 		else{
-			for(int i = 0; i <= parent1.length - 1; i++){
-				children[childrenPosition][i] = parent1[i];
-				children[childrenPosition + 1][i] = parent2[i];
-			}
+			Genotype.copy(parent1, children[childrenPosition]);
+			Genotype.copy(parent2, children[childrenPosition + 1]);
+			childrenScores[childrenPosition] = populationScores[indexParent1];
+			childrenScores[childrenPosition + 1] = populationScores[indexParent2];
+			childrenCosts[childrenPosition] = populationCosts[indexParent1];
+			childrenCosts[childrenPosition + 1] = populationCosts[indexParent2];
 		}
 	}
 	/**
 	 * Repair Method
 	 * @param population
+	 * @param scores of the solutions in population
+	 * @param costs of the solutions in population
 	 */
-	private void repair(int[][] population){
-		double[] individualsCosts = getIndividualsCosts(population);
-
+	void repair(long[][] population, double[] scores, double[] costs){
 		for(int i = 0; i <= population.length - 1; i++){
-			if(individualsCosts[i] > budget){
-				repair(population[i], individualsCosts[i]);
+			if(costs[i] > budget){
+				repair(population, scores, costs, i);
 			}
 		}
 	}
 	/**
-	 *
+	 * Recalculates the scores and costs of the given solutions and checks the ones
+	 * updated by the genetic operators (debug mode)
 	 * @param population
-	 * @return
+	 * @param scores
+	 * @param costs
+	 * @throws Exception
 	 */
-	private double[] getIndividualsCosts(int[][] population){
-		double[] individualCosts = new double[population.length];
-
-		for(int i = 0; i <= individualCosts.length - 1; i++){
-			individualCosts[i] = calculateCost(population[i]);
-		}
-
-		return individualCosts;
+	private void verifyIncrementalEvaluation(long[][] population, double[] scores, double[] costs) throws Exception{
+		evaluator.evaluate(0, population.length, (worker, from, to) -> {
+			for(int i = from; i <= to - 1; i++){
+				double score = getIndividualScore(population[i]);
+				double cost = calculateCost(population[i]);
+
+				if(Math.abs(score - scores[i]) > 1e-6 * Math.max(1, Math.abs(score))
+						|| Math.abs(cost - costs[i]) > 1e-6 * Math.max(1, Math.abs(cost))){
+					throw new IllegalStateException("Individual " + i + " has score " + scores[i] + " and cost "
+							+ costs[i] + ", expected " + score + " and " + cost);
+				}
+			}
+		});
 	}
 	/**
 	 *
 	 * @param individual
 	 * @return
 	 */
-	private double calculateCost(int[] individual){
-		double cost = 0;
-
-		for(int i = 0; i <= individual.length - 1; i++){
-			cost += individual[i] * requirementsCost[i];
-		}
-
-		return cost;
+	double calculateCost(long[] individual){
+		return Genotype.getWeightedSum(individual, requirementsCost);
 	}
 	/**
 	 * Repair Method
-	 * @param individual
-	 * @param individualCost
+	 * @param population
+	 * @param scores of the solutions in population
+	 * @param costs of the solutions in population
+	 * @param individualIndex
 	 */
-	private void repair(int[] individual, double individualCost){
+	void repair(long[][] population, double[] scores, double[] costs, int individualIndex){
+		long[] individual = population[individualIndex];
 		int randomRequirement = 0;
 
-		while(individualCost > budget){
-			randomRequirement = selectRandomRequirement(individual);
-			individual[randomRequirement] = 0;
-			individualCost -= requirementsCost[randomRequirement];
+		if(repairStrategy != RepairStrategy.RANDOM){
+			repairGreedily(individual, scores, costs, individualIndex);
+			return;
+		}
+
+		int numberOfIncludedRequirements = Genotype.getNumberOfIncludedRequirements(individual);
+
+		while(costs[individualIndex] > budget && numberOfIncludedRequirements > 0){
+			randomRequirement = selectRandomRequirement(individual, numberOfIncludedRequirements);
+			Genotype.exclude(individual, randomRequirement);
+			numberOfIncludedRequirements--;
+			costs[individualIndex] -= requirementsCost[randomRequirement];
+			scores[individualIndex] -= requirementsScore[randomRequirement];
 		}
 	}
 	/**
-	 * Return a random requirement included in solution
+	 * Greedy Repair Method: the included requirements with the lowest score/cost ratio are removed
+	 * until the cost fits the budget, then, with the refill, the requirements with the highest
+	 * ratio which fit the leftover budget are included
 	 * @param individual
-	 * @return
+	 * @param scores
+	 * @param costs
+	 * @param individualIndex
 	 */
-	private int selectRandomRequirement(int[] individual){
-		int randomRequirement = random.nextInt(individual.length);
+	private void repairGreedily(long[] individual, double[] scores, double[] costs, int individualIndex){
+		int[] order = getRequirementsByRatio();
+		int i = 0;
+
+		for(; i <= order.length - 1 && costs[individualIndex] > budget; i++){
+			int requirement = order[i];
+
+			if(Genotype.isIncluded(individual, requirement)){
+				Genotype.exclude(individual, requirement);
+				costs[individualIndex] -= requirementsCost[requirement];
+				scores[individualIndex] -= requirementsScore[requirement];
+			}
+		}
+
+		if(repairStrategy == RepairStrategy.GREEDY_WITH_REFILL){
+			//Only requirements with a higher ratio than the removed ones are added
+			for(int j = order.length - 1; j >= i; j--){
+				int requirement = order[j];
 
-		while(individual[randomRequirement] == 0){
-			randomRequirement = random.nextInt(individual.length);
+				if(!Genotype.isIncluded(individual, requirement)
+						&& costs[individualIndex] + requirementsCost[requirement] <= budget){
+					Genotype.include(individual, requirement);
+					costs[individualIndex] += requirementsCost[requirement];
+					scores[individualIndex] += requirementsScore[requirement];
+				}
+			}
 		}
+	}
+	/**
+	 *
+	 * @return The requirements sorted by increasing score/cost ratio, ties by index
+	 */
+	private int[] getRequirementsByRatio(){
+		if(requirementsByRatio == null){
+			Integer[] order = new Integer[numberOfRequirements];
 
-		return randomRequirement;
+			for(int i = 0; i <= order.length - 1; i++){
+				order[i] = i;
+			}
+			Arrays.sort(order, (Integer r1, Integer r2) ->
+					Double.compare(requirementsScore[r1] / requirementsCost[r1], requirementsScore[r2] / requirementsCost[r2]));
+
+			requirementsByRatio = new int[order.length];
+			for(int i = 0; i <= order.length - 1; i++){
+				requirementsByRatio[i] = order[i];
+			}
+		}
+		return requirementsByRatio;
 	}
 	/**
-	 * Bit wise mutation
+	 * Return a random requirement included in solution, drawing its rank among the included ones
 	 * @param individual
+	 * @param numberOfIncludedRequirements
+	 * @return
+	 */
+	private int selectRandomRequirement(long[] individual, int numberOfIncludedRequirements){
+		return Genotype.getIncludedRequirement(individual, repairRandom.nextInt(numberOfIncludedRequirements));
+	}
+	/**
+	 * Bit wise mutation, updating the score and cost of the child with each flip
+	 * @param childrenPosition
 	 */
-	private void mutate(int[] individual){
+	void mutate(int childrenPosition){
+		long[] individual = children[childrenPosition];
 		double mutationRate = mutationProbability / 100;
 
-		for(int i = 0; i <= individual.length - 1; i++){
-			if(random.nextDouble() <= mutationRate){
-				if(individual[i] == 0){
-					individual[i] = 1;
+		for(int i = 0; i <= numberOfRequirements - 1; i++){
+			if(mutationRandom.nextDouble() <= mutationRate){
+				Genotype.flip(individual, i);
+
+				if(Genotype.isIncluded(individual, i)){
+					childrenScores[childrenPosition] += requirementsScore[i];
+					childrenCosts[childrenPosition] += requirementsCost[i];
 				}
 				else{
-					individual[i] = 0;
+					childrenScores[childrenPosition] -= requirementsScore[i];
+					childrenCosts[childrenPosition] -= requirementsCost[i];
 				}
 			}
 		}
 	}
 	/**
-	 * Clone Offspring to population
-	 * @param children
+	 * Offspring becomes the population, and the old population is reused to store the next offspring
 	 */
-	private void cloneChildrenToPopulation(int[][] children){
-		for(int i = 0; i <= population.length - 1; i++){
-			for(int j = 0; j <= population[0].length - 1; j++){
-				population[i][j] = children[i][j];
-			}
-		}
+	private void swapGenerations(){
+		long[][] individuals = population;
+		population = children;
+		children = individuals;
+
+		double[] scores = populationScores;
+		populationScores = childrenScores;
+		childrenScores = scores;
+
+		double[] costs = populationCosts;
+		populationCosts = childrenCosts;
+		childrenCosts = costs;
 	}
 	/**
 	 * Return best solution/individual
 	 * @return
 	 * @throws Exception
 	 */
-	private int[] getBestIndividual() throws Exception{
-		int[] bestIndividual = null;
+	private long[] getBestIndividual() throws Exception{
+		long[] bestIndividual = null;
 		double bestFitness = -Double.MAX_VALUE;
 		double individualFitness = 0;
 
-		for(int i = 0; i <= population.length - 1; i++){
+		if (parameters[1] != 0 && isModelAvailable()) {
+			predict(populationOrder, 0);
+		}
 
-			if (parameters[1] == 0) {
-				individualFitness = calculateFitness(population[i], 0);
+		for(int i = 0; i <= population.length - 1; i++){
+			if (parameters[1] == 0 || !isModelAvailable()) {
+				individualFitness = calculateFitness(i, 0);
 			}
 			else {
-				individualFitness = calculateFitness(population[i],
-					(int) model.classifyInstance(dataSet.getInstance(population[i])));
+				individualFitness = calculateFitness(i, (int) predictions[i]);
 			}
 
 			if(individualFitness >= bestFitness){
@@ -693,25 +1965,7 @@ public class InteractiveGeneticAlgorithm {
 				bestIndividual = population[i];
 			}
 		}
+		bestIndividualFitness = bestFitness;
 		return bestIndividual;
 	}
-	/**
-	 * Return the solutions as a string
-	 * @param individual
-	 * @return
-	 */
-	private String getStringIndividual(int[] individual){
-		String stringIndividual = "";
-
-		for(int i = 0; i <= individual.length - 1; i++){
-			if(i != individual.length - 1){
-				stringIndividual += individual[i] + " ";
-			}
-			else{
-				stringIndividual += individual[i];
-			}
-		}
-
-		return stringIndividual;
-	}
 }
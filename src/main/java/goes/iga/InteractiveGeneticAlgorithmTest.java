@@ -3,8 +3,9 @@ package goes.iga;
 import java.io.File;
 import java.io.FileWriter;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Locale;
 
 /**
  *
@@ -18,83 +19,80 @@ import java.util.HashMap;
 public class InteractiveGeneticAlgorithmTest {
 
 	public static void main(String[] args) throws Exception {
-		/*
-		 * Used to write the file with results
-		 */
-		ResultsWriter resultsWriter = new ResultsWriter();
-		/*
-		 * Stores the results
-		 */
-		ArrayList<HashMap<String, String>> listOfResults;
 		/*
 		 * Number of Evaluations Per Test
 		 */
 		int numberOfExecutions = 30;
 		/*
-		 * Instance reader
+		 * Runs the executions concurrently, each one with its own solver and simulator
 		 */
-		InstanceReader reader;
+		ExperimentScheduler scheduler = new ExperimentScheduler(Runtime.getRuntime().availableProcessors());
 		/*
-		 * Evaluating Profile
+		 * Decimal Format
 		 */
-		HumanSimulator simulator = new HumanSimulator();
+		DecimalFormat myFormatter = new DecimalFormat("###.##", DecimalFormatSymbols.getInstance(Locale.ROOT));
 		/*
-		 * Solver
+		 * Records the metrics of the generations of all executions
 		 */
-		InteractiveGeneticAlgorithm iga;
+		HistogramRecorder metrics = new HistogramRecorder();
 		/*
-		 * Decimal Format
+		 * Records every generation and every execution
 		 */
-		DecimalFormat myFormatter = new DecimalFormat("###.##");
+		ResultsSink resultsSink = new ResultsSink(new File("results.jsonl"), ResultsSink.Format.JSON_LINES);
 
 
 		double[][] parameters = {{1,0}, {0,1}, {1,1}};
 		int[] instances = {50/*, 100, 150, 200*/};
 		String[] profiles = {"MANUALLY"/*, "RANDOM", "LOWER_SCORE", "HIGHER_COST"*/};
 
+		scheduler.setProgressListener((completedRuns, totalRuns, runsPerSecond) ->
+			System.out.println(completedRuns + "/" + totalRuns + " (" + myFormatter.format(runsPerSecond) + " runs/s)"));
+		scheduler.setEvolutionListener(metrics);
+		scheduler.setResultsSink(resultsSink);
+
 		for (int i = 0; i < instances.length; i++) { // for each instance
 			//A String containing score results
 			String scoreResults = "";
 			//A String Containing similarity results
 			String similarityResults = "";
-			//Used to store the results
-			FileWriter file = new FileWriter(new File("results.data"), true);
-			//Instance Reader
-			reader = new InstanceReader(new File("instances/I_"+instances[i]+".txt"));
-			System.out.println("instances/I_"+instances[i]+".txt");
-			//IGA
-			iga = new InteractiveGeneticAlgorithm(reader, "MLP", simulator);
+			//Instance file
+			File instance = new File("instances/I_"+instances[i]+".txt");
+			System.out.println(instance.getPath());
+			//One experiment per profile and parameter combination
+			ArrayList<ExperimentScheduler.Experiment> experiments = new ArrayList<ExperimentScheduler.Experiment>();
+			//Aggregates the results of each experiment as its executions finish
+			ArrayList<ResultsWriter> resultsWriters = new ArrayList<ResultsWriter>();
 
 			for (int j = 0; j < profiles.length; j++) { // for each profile
-				simulator.setHumanSimulatorProfile(profiles[j]);
+				HumanSimulator simulator = ExperimentScheduler.createSimulator(instance, profiles[j]);
 
 				for (int k = 0; k < parameters.length; k++) { // for each parameter combination
+					experiments.add(new ExperimentScheduler.Experiment(instance, "MLP", simulator, parameters[k], numberOfExecutions));
+					resultsWriters.add(new ResultsWriter(simulator));
+				}
+			}
 
-					iga.setParameters(parameters[k]);
-					listOfResults = new ArrayList<HashMap<String,String>>();
-
-					for(int l = 0; l <= numberOfExecutions - 1; l++){ // execute numberOfExecutions times
-						System.out.println(l);
-						listOfResults.add(iga.solve());
-					}
+			scheduler.run(experiments, resultsWriters);
 
-					resultsWriter.setResults(listOfResults, iga.getSimulator());
-					scoreResults += myFormatter.format(resultsWriter.getIndividualsAverageScore())+
-							"+/-" +myFormatter.format(resultsWriter.getStandardDeviation(true)) +" ";
-					similarityResults += myFormatter.format(resultsWriter.getSimilaritiesStatistics()*100)+
-							"+/-" +myFormatter.format(resultsWriter.getStandardDeviation(false)*100) +" ";;
-				}
+			for (ResultsWriter resultsWriter : resultsWriters) {
+				scoreResults += myFormatter.format(resultsWriter.getIndividualsAverageScore())+
+						"+/-" +myFormatter.format(resultsWriter.getStandardDeviation(true)) +" ";
+				similarityResults += myFormatter.format(resultsWriter.getSimilaritiesStatistics()*100)+
+						"+/-" +myFormatter.format(resultsWriter.getStandardDeviation(false)*100) +" ";;
 			}
 
 			scoreResults += "\n";
-			scoreResults = scoreResults.replace(',', '.');
 			similarityResults += "\n";
-			similarityResults = similarityResults.replace(',','.');
 
+			//Used to store the results
+			FileWriter file = new FileWriter(new File("results.data"), true);
 			file.write(similarityResults);
 			file.write(scoreResults);
 			file.close();
 		}
 
+		resultsSink.close();
+		metrics.writeCsv(new File("metrics.csv"));
+
 	}
 }
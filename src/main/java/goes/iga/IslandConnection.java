@@ -0,0 +1,294 @@
+package goes.iga;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+/**
+ *
+ * This class is a connection between the coordinator and a worker of the multi-process island model
+ * (see {@link IslandCoordinator} and {@link IslandWorker}). Each message is a frame: its type (byte),
+ * the length of its payload (int) and the payload, all big-endian:
+ * CONFIG: index of the worker, number of workers, human evaluations of the worker, human evaluations
+ * of all the workers (int) and seed (long);
+ * MIGRANTS: number of solutions and of words per solution (int), and the packed solutions (long, see {@link Genotype});
+ * SAMPLES: the same as MIGRANTS, followed by the human evaluation of each solution (int);
+ * RESULTS: fitness of the best solution (double), number of results (int), and each name and value
+ * (length in bytes as int and UTF-8 bytes).
+ *
+ * Frames are encoded by the sender and written by a writer thread, which drains all the queued frames
+ * before flushing, so frames sent together travel in the same packets. The queue is bounded: when
+ * the peer does not read, {@link #send(byte[])} blocks, and {@link #offer(byte[])} drops the frame.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+final class IslandConnection implements Closeable {
+	static final byte CONFIG = 1;
+	static final byte MIGRANTS = 2;
+	static final byte SAMPLES = 3;
+	static final byte RESULTS = 4;
+	/**
+	 * Max number of queued frames
+	 */
+	private static final int QUEUE_CAPACITY = 64;
+	/**
+	 * Max length of a payload
+	 */
+	private static final int MAX_PAYLOAD = 1 << 28;
+	/**
+	 * Queued by close to stop the writer
+	 */
+	private static final byte[] END = new byte[0];
+	private final Socket socket;
+	private final DataInputStream input;
+	private final DataOutputStream output;
+	private final ArrayBlockingQueue<byte[]> frames = new ArrayBlockingQueue<byte[]>(QUEUE_CAPACITY);
+	private final Thread writer;
+	/**
+	 * Error of the writer, null while it writes
+	 */
+	private volatile IOException failure;
+	/**
+	 * Constructor, starts the writer
+	 * @param socket connected
+	 * @throws IOException
+	 */
+	IslandConnection(Socket socket) throws IOException {
+		this.socket = socket;
+		socket.setTcpNoDelay(true);
+		this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		this.writer = new Thread(this::write, "island-connection-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+	/**
+	 * Write the queued frames until close
+	 */
+	private void write() {
+		try{
+			byte[] frame;
+
+			while((frame = frames.take()) != END){
+				output.write(frame);
+				while((frame = frames.peek()) != null && frame != END){
+					output.write(frames.poll());
+				}
+				output.flush();
+			}
+		}
+		catch(IOException e){
+			failure = e;
+			frames.clear();
+		}
+		catch(InterruptedException e){
+			failure = new IOException("Connection writer interrupted", e);
+		}
+	}
+	/**
+	 * Queue a frame, waiting while the queue is full
+	 * @param frame
+	 * @throws IOException if the frame can not be written
+	 * @throws InterruptedException
+	 */
+	void send(byte[] frame) throws IOException, InterruptedException {
+		while(!frames.offer(frame, 100, TimeUnit.MILLISECONDS)){
+			checkFailure();
+		}
+		checkFailure();
+	}
+	/**
+	 * Queue a frame unless the queue is full
+	 * @param frame
+	 * @return false if the frame was dropped
+	 * @throws IOException if the frame can not be written
+	 */
+	boolean offer(byte[] frame) throws IOException {
+		checkFailure();
+		return frames.offer(frame);
+	}
+	private void checkFailure() throws IOException {
+		if(failure != null){
+			throw failure;
+		}
+	}
+	/**
+	 * Read the next frame, waiting for it
+	 * @return the frame, positioned at its payload (its type is at 0), or null if the peer closed the connection
+	 * @throws IOException
+	 */
+	ByteBuffer receive() throws IOException {
+		byte type;
+
+		try{
+			type = input.readByte();
+		}
+		catch(EOFException e){
+			return null;
+		}
+		int length = input.readInt();
+		if(length < 0 || length > MAX_PAYLOAD){
+			throw new IOException("Invalid frame length: " + length);
+		}
+
+		ByteBuffer frame = allocate(type, length);
+		input.readFully(frame.array(), 5, length);
+		return frame;
+	}
+	/**
+	 * Send the queued frames and close the connection
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		try{
+			if(writer.isAlive() && failure == null){
+				frames.put(END);
+				writer.join();
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		finally{
+			socket.close();
+		}
+	}
+	/**
+	 *
+	 * @param type
+	 * @param payloadLength
+	 * @return A frame with its header written and room for the payload
+	 */
+	private static ByteBuffer allocate(byte type, int payloadLength) {
+		ByteBuffer frame = ByteBuffer.allocate(5 + payloadLength);
+
+		frame.put(type);
+		frame.putInt(payloadLength);
+		return frame;
+	}
+	static byte[] encodeConfig(int index, int numberOfWorkers, int budget, int nSubjectiveEvaluations, long seed) {
+		ByteBuffer frame = allocate(CONFIG, 24);
+
+		frame.putInt(index);
+		frame.putInt(numberOfWorkers);
+		frame.putInt(budget);
+		frame.putInt(nSubjectiveEvaluations);
+		frame.putLong(seed);
+		return frame.array();
+	}
+	/**
+	 *
+	 * @param type MIGRANTS or SAMPLES
+	 * @param individuals packed solutions, all with the same number of words
+	 * @param evaluations human evaluations of the solutions, only for SAMPLES
+	 * @param numberOfIndividuals
+	 * @return
+	 */
+	static byte[] encodeIndividuals(byte type, long[][] individuals, int[] evaluations, int numberOfIndividuals) {
+		int words = numberOfIndividuals == 0 ? 0 : individuals[0].length;
+		int length = 8 + 8 * numberOfIndividuals * words + (evaluations == null ? 0 : 4 * numberOfIndividuals);
+		ByteBuffer frame = allocate(type, length);
+
+		frame.putInt(numberOfIndividuals);
+		frame.putInt(words);
+		for(int i = 0; i <= numberOfIndividuals - 1; i++){
+			frame.asLongBuffer().put(individuals[i]);
+			frame.position(frame.position() + 8 * words);
+		}
+		for(int i = 0; evaluations != null && i <= numberOfIndividuals - 1; i++){
+			frame.putInt(evaluations[i]);
+		}
+		return frame.array();
+	}
+	/**
+	 *
+	 * @param frame MIGRANTS or SAMPLES, positioned at the payload
+	 * @return The packed solutions
+	 */
+	static long[][] decodeIndividuals(ByteBuffer frame) {
+		int numberOfIndividuals = frame.getInt();
+		int words = frame.getInt();
+		long[][] individuals = new long[numberOfIndividuals][words];
+
+		for(int i = 0; i <= numberOfIndividuals - 1; i++){
+			frame.asLongBuffer().get(individuals[i]);
+			frame.position(frame.position() + 8 * words);
+		}
+		return individuals;
+	}
+	/**
+	 *
+	 * @param frame SAMPLES, positioned after the solutions
+	 * @param numberOfIndividuals
+	 * @return The human evaluations of the solutions
+	 */
+	static int[] decodeEvaluations(ByteBuffer frame, int numberOfIndividuals) {
+		int[] evaluations = new int[numberOfIndividuals];
+
+		frame.asIntBuffer().get(evaluations);
+		return evaluations;
+	}
+	static byte[] encodeResults(double bestFitness, HashMap<String, String> results) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream payload = new DataOutputStream(bytes);
+
+		payload.writeByte(RESULTS);
+		payload.writeInt(0);
+		payload.writeDouble(bestFitness);
+		payload.writeInt(results.size());
+		for(Map.Entry<String, String> result : results.entrySet()){
+			writeString(payload, result.getKey());
+			writeString(payload, result.getValue());
+		}
+
+		ByteBuffer frame = ByteBuffer.wrap(bytes.toByteArray());
+		frame.putInt(1, frame.capacity() - 5);
+		return frame.array();
+	}
+	/**
+	 *
+	 * @param frame RESULTS, positioned after the fitness of the best solution
+	 * @return The results
+	 */
+	static HashMap<String, String> decodeResults(ByteBuffer frame) {
+		int numberOfResults = frame.getInt();
+		HashMap<String, String> results = new HashMap<String, String>();
+
+		for(int i = 0; i <= numberOfResults - 1; i++){
+			String name = readString(frame);
+			results.put(name, readString(frame));
+		}
+		return results;
+	}
+	/**
+	 * Write a string of any length (writeUTF is limited to 64KB, less than the best solution of large instances)
+	 * @param output
+	 * @param value
+	 * @throws IOException
+	 */
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+	private static String readString(ByteBuffer frame) {
+		byte[] bytes = new byte[frame.getInt()];
+
+		frame.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
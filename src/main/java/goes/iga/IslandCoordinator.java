@@ -0,0 +1,217 @@
+package goes.iga;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+/**
+ *
+ * This class coordinates the island model run by several processes (see {@link IslandModel}): each
+ * worker process (see {@link IslandWorker}) evolves one island and connects to the coordinator over
+ * TCP (see {@link IslandConnection} for the protocol). The coordinator gives each worker its seed and
+ * its share of the human evaluations, relays the emigrants of each worker to its neighbours of the
+ * topology and the solutions evaluated by the human of each worker to all the others, so every
+ * worker trains its model with all of them, and returns the results of the worker with the best solution.
+ *
+ * Emigrants are dropped when a worker does not read them fast enough, since newer ones replace
+ * them; evaluated solutions are never dropped, so a slow worker slows down the sender.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class IslandCoordinator implements AutoCloseable {
+	private final ServerSocket serverSocket;
+	private final int numberOfWorkers;
+	private IslandModel.Topology topology;
+	private int nSubjectiveEvaluations;
+	private long seed;
+	/**
+	 * Connections of the workers, in the order they connected
+	 */
+	private IslandConnection[] connections;
+	/**
+	 * Number of emigrant batches dropped
+	 */
+	private long numberOfDroppedMigrants;
+	/**
+	 * Constructor, listens on the loopback address
+	 * @param port 0 to choose a free port (see {@link #getPort()})
+	 * @param numberOfWorkers
+	 * @throws IOException
+	 */
+	public IslandCoordinator(int port, int numberOfWorkers) throws IOException {
+		if(numberOfWorkers < 1){
+			throw new IllegalArgumentException("Number of workers must be positive: " + numberOfWorkers);
+		}
+		this.serverSocket = new ServerSocket(port, numberOfWorkers, InetAddress.getLoopbackAddress());
+		this.numberOfWorkers = numberOfWorkers;
+		this.topology = IslandModel.Topology.RING;
+		this.nSubjectiveEvaluations = 100;
+		this.seed = new RandomStream().nextLong();
+	}
+	/**
+	 *
+	 * @return the port the workers connect to
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	public void setTopology(IslandModel.Topology topology) {
+		this.topology = topology;
+	}
+	/**
+	 *
+	 * @param nSubjectiveEvaluations human evaluations of all the workers
+	 */
+	public void setNumberOfSubjectiveEvaluations(int nSubjectiveEvaluations) {
+		this.nSubjectiveEvaluations = nSubjectiveEvaluations;
+	}
+	/**
+	 * Set the seed from which the seeds of the workers are derived
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	/**
+	 * Wait for all the workers, relay their messages until all of them send their results
+	 * @return The results of the worker with the best solution, and the number of islands
+	 * @throws Exception
+	 */
+	public HashMap<String, String> run() throws Exception {
+		RandomStream seeds = new RandomStream(seed);
+		Thread[] readers = new Thread[numberOfWorkers];
+		AtomicReferenceArray<HashMap<String, String>> results = new AtomicReferenceArray<HashMap<String, String>>(numberOfWorkers);
+		double[] bestFitness = new double[numberOfWorkers];
+		Exception[] failures = new Exception[numberOfWorkers];
+		int best = 0;
+
+		connections = new IslandConnection[numberOfWorkers];
+		for(int i = 0; i <= numberOfWorkers - 1; i++){
+			connections[i] = new IslandConnection(serverSocket.accept());
+		}
+
+		//Every worker gets its configuration before the messages relayed from the others
+		for(int i = 0; i <= numberOfWorkers - 1; i++){
+			//The remainder of the budget goes to the first workers
+			int budget = nSubjectiveEvaluations / numberOfWorkers + (i < nSubjectiveEvaluations % numberOfWorkers ? 1 : 0);
+
+			connections[i].send(IslandConnection.encodeConfig(i, numberOfWorkers, budget, nSubjectiveEvaluations, seeds.nextLong()));
+		}
+		for(int i = 0; i <= numberOfWorkers - 1; i++){
+			int worker = i;
+
+			readers[i] = new Thread(() -> {
+				try{
+					bestFitness[worker] = relay(worker, results);
+				}
+				catch(Exception e){
+					failures[worker] = e;
+				}
+			}, "island-coordinator-" + i);
+			readers[i].start();
+		}
+
+		for(int i = 0; i <= numberOfWorkers - 1; i++){
+			readers[i].join();
+			if(failures[i] != null){
+				throw failures[i];
+			}
+			if(results.get(i) == null){
+				throw new IOException("Worker " + i + " closed the connection without results");
+			}
+			if(bestFitness[i] > bestFitness[best]){
+				best = i;
+			}
+		}
+
+		//The workers wait for the end of the connection, so they keep reading while others run
+		close();
+		results.get(best).put("numberOfIslands", numberOfWorkers + "");
+		return results.get(best);
+	}
+	/**
+	 * Relay the messages of a worker until it sends its results
+	 * @param worker
+	 * @param results output, the results of the worker
+	 * @return The fitness of the best solution of the worker
+	 * @throws Exception
+	 */
+	private double relay(int worker, AtomicReferenceArray<HashMap<String, String>> results) throws Exception {
+		ByteBuffer frame;
+
+		while((frame = connections[worker].receive()) != null){
+			byte type = frame.get(0);
+
+			if(type == IslandConnection.MIGRANTS){
+				for(int k = 1; k <= numberOfWorkers - 1; k++){
+					if(!connections[(worker + k) % numberOfWorkers].offer(frame.array())){
+						synchronized(this){
+							numberOfDroppedMigrants++;
+						}
+					}
+					if(topology == IslandModel.Topology.RING){
+						break;
+					}
+				}
+			}
+			else if(type == IslandConnection.SAMPLES){
+				for(int k = 1; k <= numberOfWorkers - 1; k++){
+					connections[(worker + k) % numberOfWorkers].send(frame.array());
+				}
+			}
+			else if(type == IslandConnection.RESULTS){
+				double bestFitness = frame.getDouble();
+
+				results.set(worker, IslandConnection.decodeResults(frame));
+				return bestFitness;
+			}
+			else{
+				throw new IOException("Unexpected frame from worker " + worker + ": " + type);
+			}
+		}
+
+		return -Double.MAX_VALUE;
+	}
+	/**
+	 *
+	 * @return the number of emigrant batches dropped because their destination did not read them
+	 */
+	public synchronized long getNumberOfDroppedMigrants() {
+		return numberOfDroppedMigrants;
+	}
+	/**
+	 * Close the connections and stop listening
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		try{
+			for(int i = 0; connections != null && i <= connections.length - 1; i++){
+				if(connections[i] != null){
+					connections[i].close();
+				}
+			}
+			connections = null;
+		}
+		finally{
+			serverSocket.close();
+		}
+	}
+	/**
+	 * Coordinate workers started with {@link IslandWorker#main(String[])}
+	 * @param args port, number of workers, human evaluations of all the workers, seed (optional)
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		try(IslandCoordinator coordinator = new IslandCoordinator(Integer.parseInt(args[0]), Integer.parseInt(args[1]))){
+			coordinator.setNumberOfSubjectiveEvaluations(Integer.parseInt(args[2]));
+			if(args.length > 3){
+				coordinator.setSeed(Long.parseLong(args[3]));
+			}
+			System.out.println(coordinator.run());
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package goes.iga;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+/**
+ *
+ * This class runs the interactive genetic algorithm as an island model: several subpopulations
+ * (islands), each one a solver with its own random numbers generator, evolve on their own threads
+ * and every migration interval send copies of their best solutions to the neighbour islands of the
+ * topology, which replace some of their solutions with them. Selection stays inside each island.
+ * The emigrants of each island are published in an exchange slot replaced atomically, so the
+ * islands never wait for each other, and an island takes whatever its neighbours published last.
+ * All the islands share one learning model and one human evaluations budget (see {@link SharedSurrogate}).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class IslandModel {
+	/**
+	 * Islands which receive the emigrants of an island
+	 */
+	public enum Topology {
+		/**
+		 * Island i receives the emigrants of island i - 1 (the first one those of the last one)
+		 */
+		RING,
+		/**
+		 * Each island receives the emigrants of all the others
+		 */
+		FULLY_CONNECTED
+	}
+	/**
+	 * Solvers of the subpopulations
+	 */
+	private final InteractiveGeneticAlgorithm[] islands;
+	/**
+	 * Learning model given to the shared model, and number of requirements
+	 */
+	private final String model;
+	private final int numberOfRequirements;
+	/**
+	 * Last emigrants published by each island, null if none
+	 */
+	private AtomicReferenceArray<long[][]> emigrants;
+	/**
+	 * Generations between migrations, and number of emigrants of each island
+	 */
+	private int migrationInterval;
+	private int numberOfMigrants;
+	private Topology topology;
+	/**
+	 * Human evaluations of all the islands and their schedule
+	 * (see {@link InteractiveGeneticAlgorithm#setRetrainingSchedule(int, int, int, int)})
+	 */
+	private int nSubjectiveEvaluations;
+	private int numberOfInitialEvaluations;
+	private int retrainingInterval;
+	private int evaluationsPerRetraining;
+	private int trainingSetCapacity;
+	/**
+	 * Constructor: each island has a population of 2 x (number of requirements) / (number of islands)
+	 * solutions, migrating 2 solutions every 10 generations over a ring
+	 * @param instance
+	 * @param model learning model (see {@link InteractiveGeneticAlgorithm})
+	 * @param simulator shared by the islands, its target solution must not change during an execution
+	 * @param numberOfIslands
+	 * @throws Exception
+	 */
+	public IslandModel(NrpInstance instance, String model, HumanSimulator simulator, int numberOfIslands) throws Exception {
+		if(numberOfIslands < 1){
+			throw new IllegalArgumentException("Number of islands must be positive: " + numberOfIslands);
+		}
+		this.model = model;
+		this.numberOfRequirements = instance.getNumberOfRequirements();
+		this.islands = new InteractiveGeneticAlgorithm[numberOfIslands];
+		for(int i = 0; i <= numberOfIslands - 1; i++){
+			islands[i] = new InteractiveGeneticAlgorithm(instance, model, simulator);
+		}
+		setNumberOfIndividuals(2 * numberOfRequirements);
+		this.migrationInterval = 10;
+		this.numberOfMigrants = 2;
+		this.topology = Topology.RING;
+		this.nSubjectiveEvaluations = 100;
+		setRandomStream(new RandomStream());
+	}
+	/**
+	 *
+	 * @return the solvers of the islands, to set their other options (parameters, stopping criteria...)
+	 */
+	public InteractiveGeneticAlgorithm[] getIslands() {
+		return islands.clone();
+	}
+	/**
+	 * Split the given number of solutions among the islands (each one has an even number, at least 2)
+	 * @param numberOfIndividuals
+	 */
+	public void setNumberOfIndividuals(int numberOfIndividuals) {
+		int islandSize = Math.max(2, numberOfIndividuals / islands.length / 2 * 2);
+
+		for(InteractiveGeneticAlgorithm island : islands){
+			island.setNumberOfIndividuals(islandSize);
+		}
+	}
+	/**
+	 * Set the seed of the islands: each island has its own streams split from it, so the
+	 * random numbers of an island do not depend on the others. Runs with the same seed are still
+	 * not reproducible: the emigrants an island receives and the version of the shared model it
+	 * predicts with depend on the timing of the other islands.
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		setRandomStream(new RandomStream(seed));
+	}
+	private void setRandomStream(RandomStream randomStream) {
+		for(InteractiveGeneticAlgorithm island : islands){
+			island.setRandomStream(randomStream.split());
+		}
+	}
+	/**
+	 *
+	 * @param parameters alpha and beta of all the islands
+	 */
+	public void setParameters(double[] parameters) {
+		for(InteractiveGeneticAlgorithm island : islands){
+			island.setParameters(parameters.clone());
+		}
+	}
+	/**
+	 * Set the migrations
+	 * @param migrationInterval generations between migrations, 0 disables them
+	 * @param numberOfMigrants solutions sent by each island
+	 * @param topology
+	 */
+	public void setMigration(int migrationInterval, int numberOfMigrants, Topology topology) {
+		this.migrationInterval = migrationInterval;
+		this.numberOfMigrants = numberOfMigrants;
+		this.topology = topology;
+	}
+	/**
+	 *
+	 * @param nSubjectiveEvaluations human evaluations of all the islands
+	 */
+	public void setNumberOfSubjectiveEvaluations(int nSubjectiveEvaluations) {
+		this.nSubjectiveEvaluations = nSubjectiveEvaluations;
+	}
+	/**
+	 * Set the schedule of the human evaluations of all the islands, each island asking its share
+	 * (see {@link InteractiveGeneticAlgorithm#setRetrainingSchedule(int, int, int, int)})
+	 * @param numberOfInitialEvaluations
+	 * @param retrainingInterval
+	 * @param evaluationsPerRetraining
+	 * @param trainingSetCapacity
+	 */
+	public void setRetrainingSchedule(int numberOfInitialEvaluations, int retrainingInterval,
+			int evaluationsPerRetraining, int trainingSetCapacity) {
+		if(retrainingInterval > 0 && (numberOfInitialEvaluations < 1 || evaluationsPerRetraining < 1)){
+			throw new IllegalArgumentException("The initial evaluations and the evaluations per retraining must be positive");
+		}
+		this.numberOfInitialEvaluations = numberOfInitialEvaluations;
+		this.retrainingInterval = retrainingInterval;
+		this.evaluationsPerRetraining = evaluationsPerRetraining;
+		this.trainingSetCapacity = trainingSetCapacity;
+	}
+	/**
+	 * Set the listener notified of the metrics of each generation of every island
+	 * @param evolutionListener must be thread-safe, e.g. {@link HistogramRecorder}
+	 */
+	public void setEvolutionListener(EvolutionListener evolutionListener) {
+		for(InteractiveGeneticAlgorithm island : islands){
+			island.setEvolutionListener(evolutionListener);
+		}
+	}
+	/**
+	 * Evolve all the islands, each one on its own thread, until each one stops
+	 * @return The results of the island with the best solution, and the number of islands
+	 * @throws Exception
+	 */
+	public HashMap<String, String> solve() throws Exception {
+		SharedSurrogate sharedSurrogate = new SharedSurrogate(InteractiveGeneticAlgorithm.getSurrogate(model, numberOfRequirements),
+				numberOfRequirements, islands.length, nSubjectiveEvaluations, numberOfInitialEvaluations,
+				retrainingInterval, evaluationsPerRetraining, trainingSetCapacity);
+		ExecutorService executor = Executors.newFixedThreadPool(islands.length);
+		List<Future<HashMap<String, String>>> futures = new ArrayList<Future<HashMap<String, String>>>();
+		HashMap<String, String> results = null;
+		double bestFitness = -Double.MAX_VALUE;
+
+		emigrants = new AtomicReferenceArray<long[][]>(islands.length);
+		try{
+			for(int i = 0; i <= islands.length - 1; i++){
+				int island = i;
+
+				islands[i].setSharedSurrogate(sharedSurrogate);
+				futures.add(executor.submit(() -> evolve(island)));
+			}
+
+			for(int i = 0; i <= islands.length - 1; i++){
+				HashMap<String, String> islandResults = futures.get(i).get();
+
+				if(islands[i].getBestIndividualFitness() > bestFitness){
+					bestFitness = islands[i].getBestIndividualFitness();
+					results = islandResults;
+				}
+			}
+		}
+		catch(ExecutionException e){
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+		finally{
+			executor.shutdownNow();
+			for(InteractiveGeneticAlgorithm island : islands){
+				island.setSharedSurrogate(null);
+			}
+		}
+
+		results.put("numberOfIslands", islands.length + "");
+		return results;
+	}
+	/**
+	 * Evolve an island until it stops, migrating every migration interval
+	 * @param index
+	 * @return The results of the island
+	 * @throws Exception
+	 */
+	private HashMap<String, String> evolve(int index) throws Exception {
+		InteractiveGeneticAlgorithm island = islands[index];
+		InteractiveGeneticAlgorithm.StoppingReason stoppingReason = null;
+
+		island.initialize();
+		while((stoppingReason = island.getStoppingReason()) == null){
+			island.evolve();
+			if(migrationInterval > 0 && islands.length > 1 && island.getGeneration() % migrationInterval == 0){
+				migrate(index);
+			}
+		}
+
+		return island.getResults(stoppingReason);
+	}
+	/**
+	 * Publish the best solutions of an island and replace its last solutions (in random order,
+	 * since they come from the tournaments) with the last ones published by its neighbours
+	 * @param index
+	 */
+	private void migrate(int index) {
+		InteractiveGeneticAlgorithm island = islands[index];
+		int position = island.getPopulationSize() - 1;
+		//At most half the population is replaced
+		int lastPosition = island.getPopulationSize() / 2;
+
+		emigrants.set(index, island.getEmigrants(numberOfMigrants));
+
+		for(int k = 1; k <= islands.length - 1 && position >= lastPosition; k++){
+			int source = (index - k + islands.length) % islands.length;
+			long[][] immigrants = emigrants.get(source);
+
+			for(int i = 0; immigrants != null && i <= immigrants.length - 1 && position >= lastPosition; i++){
+				island.replaceIndividual(position--, immigrants[i]);
+			}
+			if(topology == Topology.RING){
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package goes.iga;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+/**
+ *
+ * This class evolves one island of the island model run by several processes, connected to an
+ * {@link IslandCoordinator}. The island asks the human only its share of the evaluations, sends the
+ * solutions evaluated to the coordinator and trains its model with them and with those evaluated
+ * by the other workers, so all the workers train their models with the same solutions. Every
+ * migration interval it sends its best solutions and replaces some of its solutions with the last
+ * ones received, never waiting for them.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class IslandWorker {
+	private final InteractiveGeneticAlgorithm island;
+	/**
+	 * Learning model and number of requirements
+	 */
+	private final String model;
+	private final int numberOfRequirements;
+	/**
+	 * Batches of emigrants received from the other workers, the last one first
+	 */
+	private final ConcurrentLinkedDeque<long[][]> immigrants = new ConcurrentLinkedDeque<long[][]>();
+	/**
+	 * Generations between migrations, and number of emigrants
+	 */
+	private int migrationInterval;
+	private int numberOfMigrants;
+	/**
+	 * Schedule of the human evaluations of all the workers
+	 * (see {@link InteractiveGeneticAlgorithm#setRetrainingSchedule(int, int, int, int)})
+	 */
+	private int numberOfInitialEvaluations;
+	private int retrainingInterval;
+	private int evaluationsPerRetraining;
+	private int trainingSetCapacity;
+	/**
+	 * Constructor, migrating 2 solutions every 10 generations
+	 * @param instance
+	 * @param model learning model (see {@link InteractiveGeneticAlgorithm})
+	 * @param simulator its target solution must be the same in all the workers
+	 * @throws Exception
+	 */
+	public IslandWorker(NrpInstance instance, String model, HumanSimulator simulator) throws Exception {
+		this.island = new InteractiveGeneticAlgorithm(instance, model, simulator);
+		this.model = model;
+		this.numberOfRequirements = instance.getNumberOfRequirements();
+		this.migrationInterval = 10;
+		this.numberOfMigrants = 2;
+	}
+	/**
+	 *
+	 * @return the solver of the island, to set its other options (parameters, stopping criteria...)
+	 */
+	public InteractiveGeneticAlgorithm getIsland() {
+		return island;
+	}
+	/**
+	 * Set the migrations, the topology is set by the coordinator
+	 * @param migrationInterval generations between migrations, 0 disables them
+	 * @param numberOfMigrants
+	 */
+	public void setMigration(int migrationInterval, int numberOfMigrants) {
+		this.migrationInterval = migrationInterval;
+		this.numberOfMigrants = numberOfMigrants;
+	}
+	/**
+	 * Set the schedule of the human evaluations of all the workers
+	 * (see {@link IslandModel#setRetrainingSchedule(int, int, int, int)})
+	 * @param numberOfInitialEvaluations
+	 * @param retrainingInterval
+	 * @param evaluationsPerRetraining
+	 * @param trainingSetCapacity
+	 */
+	public void setRetrainingSchedule(int numberOfInitialEvaluations, int retrainingInterval,
+			int evaluationsPerRetraining, int trainingSetCapacity) {
+		if(retrainingInterval > 0 && (numberOfInitialEvaluations < 1 || evaluationsPerRetraining < 1)){
+			throw new IllegalArgumentException("The initial evaluations and the evaluations per retraining must be positive");
+		}
+		this.numberOfInitialEvaluations = numberOfInitialEvaluations;
+		this.retrainingInterval = retrainingInterval;
+		this.evaluationsPerRetraining = evaluationsPerRetraining;
+		this.trainingSetCapacity = trainingSetCapacity;
+	}
+	/**
+	 * Connect to the coordinator and evolve the island until it stops
+	 * @param host
+	 * @param port
+	 * @return The results of the island, also sent to the coordinator
+	 * @throws Exception
+	 */
+	public HashMap<String, String> run(String host, int port) throws Exception {
+		try(IslandConnection connection = new IslandConnection(new Socket(host, port))){
+			ByteBuffer config = connection.receive();
+
+			if(config == null || config.get(0) != IslandConnection.CONFIG){
+				throw new IOException("The coordinator did not send the configuration");
+			}
+			config.getInt(); //index
+			int numberOfWorkers = config.getInt();
+			int budget = config.getInt();
+			int nSubjectiveEvaluations = config.getInt();
+			long seed = config.getLong();
+			SharedSurrogate sharedSurrogate = new SharedSurrogate(InteractiveGeneticAlgorithm.getSurrogate(model, numberOfRequirements),
+					numberOfRequirements, numberOfWorkers, budget, nSubjectiveEvaluations, numberOfInitialEvaluations,
+					retrainingInterval, evaluationsPerRetraining, trainingSetCapacity);
+			Exception[] failure = new Exception[1];
+			Thread reader = new Thread(() -> {
+				try{
+					receive(connection, sharedSurrogate);
+				}
+				catch(Exception e){
+					failure[0] = e;
+				}
+			}, "island-worker-reader");
+
+			sharedSurrogate.setSampleListener((individuals, evaluations, numberOfSamples) ->
+					connection.send(IslandConnection.encodeIndividuals(IslandConnection.SAMPLES, individuals, evaluations, numberOfSamples)));
+			island.setSeed(seed);
+			island.setSharedSurrogate(sharedSurrogate);
+			reader.setDaemon(true);
+			reader.start();
+
+			try{
+				HashMap<String, String> results = evolve(connection, numberOfWorkers);
+
+				connection.send(IslandConnection.encodeResults(island.getBestIndividualFitness(), results));
+				//The coordinator ends the connection once all the workers sent their results
+				reader.join();
+				if(failure[0] != null){
+					throw failure[0];
+				}
+				return results;
+			}
+			finally{
+				island.setSharedSurrogate(null);
+			}
+		}
+	}
+	/**
+	 * Evolve the island until it stops, migrating every migration interval
+	 * @param connection
+	 * @param numberOfWorkers
+	 * @return The results of the island
+	 * @throws Exception
+	 */
+	private HashMap<String, String> evolve(IslandConnection connection, int numberOfWorkers) throws Exception {
+		InteractiveGeneticAlgorithm.StoppingReason stoppingReason = null;
+
+		island.initialize();
+		while((stoppingReason = island.getStoppingReason()) == null){
+			island.evolve();
+			if(migrationInterval > 0 && numberOfWorkers > 1 && island.getGeneration() % migrationInterval == 0){
+				migrate(connection);
+			}
+		}
+
+		return island.getResults(stoppingReason);
+	}
+	/**
+	 * Send the best solutions of the island and replace its last solutions (in random order, since
+	 * they come from the tournaments) with the last ones received
+	 * @param connection
+	 * @throws IOException
+	 */
+	private void migrate(IslandConnection connection) throws IOException {
+		long[][] emigrants = island.getEmigrants(numberOfMigrants);
+		ArrayDeque<long[][]> received = new ArrayDeque<long[][]>();
+		long[][] batch;
+		int position = island.getPopulationSize() - 1;
+		//At most half the population is replaced
+		int lastPosition = island.getPopulationSize() / 2;
+
+		//Dropped if the coordinator is behind, newer emigrants will follow
+		connection.offer(IslandConnection.encodeIndividuals(IslandConnection.MIGRANTS, emigrants, null, emigrants.length));
+
+		while((batch = immigrants.pollFirst()) != null){
+			received.add(batch);
+		}
+		for(long[][] individuals : received){
+			for(int i = 0; i <= individuals.length - 1 && position >= lastPosition; i++){
+				island.replaceIndividual(position--, individuals[i]);
+			}
+		}
+	}
+	/**
+	 * Read the messages of the coordinator until it ends the connection
+	 * @param connection
+	 * @param sharedSurrogate
+	 * @throws Exception
+	 */
+	private void receive(IslandConnection connection, SharedSurrogate sharedSurrogate) throws Exception {
+		ByteBuffer frame;
+
+		while((frame = connection.receive()) != null){
+			byte type = frame.get(0);
+
+			if(type == IslandConnection.MIGRANTS){
+				immigrants.addFirst(IslandConnection.decodeIndividuals(frame));
+			}
+			else if(type == IslandConnection.SAMPLES){
+				long[][] individuals = IslandConnection.decodeIndividuals(frame);
+
+				sharedSurrogate.addRemoteSamples(individuals,
+						IslandConnection.decodeEvaluations(frame, individuals.length), individuals.length);
+			}
+			else{
+				throw new IOException("Unexpected frame from the coordinator: " + type);
+			}
+		}
+	}
+	/**
+	 * Evolve an island for the coordinator started with {@link IslandCoordinator#main(String[])}
+	 * @param args host, port, instance file, model, profile, alpha, beta
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		NrpInstance instance = NrpInstance.read(new File(args[2]));
+		HumanSimulator simulator = ExperimentScheduler.createSimulator(instance, args[4]);
+		IslandWorker worker = new IslandWorker(instance, args[3], simulator);
+
+		worker.getIsland().setParameters(new double[]{Double.parseDouble(args[5]), Double.parseDouble(args[6])});
+		System.out.println(worker.run(args[0], Integer.parseInt(args[1])));
+	}
+}
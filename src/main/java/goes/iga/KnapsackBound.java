@@ -0,0 +1,202 @@
+package goes.iga;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ *
+ * This class computes the max possible score of a release, used to normalize the score in the
+ * fitness, as the 0/1 knapsack of the requirements scores bounded by the budget. When the costs
+ * are integers and the table fits in memory the optimum is computed exactly by dynamic programming,
+ * otherwise the bound given by the linear relaxation (Dantzig bound) is used. The bounds are cached
+ * by instance (scores and costs) and budget, so repeated executions compute them only once.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public final class KnapsackBound {
+	/**
+	 * Max number of cells of the dynamic programming table (number of requirements x budget)
+	 */
+	private static final long MAX_TABLE_SIZE = 200000000L;
+	/**
+	 * Max number of cached bounds
+	 */
+	private static final int CACHE_SIZE = 32;
+	/**
+	 * Bounds already computed, the least recently used is removed first
+	 */
+	private static final Map<Key, Double> CACHE = new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	/**
+	 * Utility class
+	 */
+	private KnapsackBound() {
+	}
+	/**
+	 *
+	 * @param requirementsScore
+	 * @param requirementsCost
+	 * @param budget
+	 * @return The max score of a release within the budget (cached)
+	 */
+	public static double getMaxScore(double[] requirementsScore, double[] requirementsCost, double budget) {
+		Key key = new Key(requirementsScore, requirementsCost, budget);
+
+		synchronized (CACHE) {
+			Double maxScore = CACHE.get(key);
+			if(maxScore != null){
+				return maxScore;
+			}
+		}
+
+		double maxScore = calculateMaxScore(requirementsScore, requirementsCost, budget);
+
+		synchronized (CACHE) {
+			CACHE.put(key.detach(), maxScore);
+		}
+
+		return maxScore;
+	}
+	/**
+	 *
+	 * @param requirementsScore
+	 * @param requirementsCost
+	 * @param budget
+	 * @return The exact max score if possible, else an upper bound of it
+	 */
+	static double calculateMaxScore(double[] requirementsScore, double[] requirementsCost, double budget) {
+		long capacity = (long) Math.floor(budget);
+
+		if(hasIntegerCosts(requirementsCost) && capacity >= 0
+				&& (capacity + 1) * requirementsCost.length <= MAX_TABLE_SIZE){
+			return getExactMaxScore(requirementsScore, requirementsCost, (int) capacity);
+		}
+
+		return getRelaxedMaxScore(requirementsScore, requirementsCost, budget);
+	}
+	/**
+	 *
+	 * @param requirementsCost
+	 * @return True if all costs are non-negative integers
+	 */
+	private static boolean hasIntegerCosts(double[] requirementsCost) {
+		for(int i = 0; i <= requirementsCost.length - 1; i++){
+			if(requirementsCost[i] < 0 || requirementsCost[i] != Math.rint(requirementsCost[i])){
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * Dynamic programming over the budget, O(number of requirements x budget)
+	 * @param requirementsScore
+	 * @param requirementsCost
+	 * @param capacity
+	 * @return
+	 */
+	private static double getExactMaxScore(double[] requirementsScore, double[] requirementsCost, int capacity) {
+		double[] bestScores = new double[capacity + 1];
+
+		for(int i = 0; i <= requirementsScore.length - 1; i++){
+			int cost = (int) requirementsCost[i];
+
+			if(requirementsScore[i] <= 0 || cost > capacity){
+				continue;
+			}
+
+			for(int c = capacity; c >= cost; c--){
+				double score = bestScores[c - cost] + requirementsScore[i];
+				if(score > bestScores[c]){
+					bestScores[c] = score;
+				}
+			}
+		}
+
+		return bestScores[capacity];
+	}
+	/**
+	 * Linear relaxation: requirements are included by decreasing score/cost ratio and the
+	 * first one which does not fit is included partially
+	 * @param requirementsScore
+	 * @param requirementsCost
+	 * @param budget
+	 * @return
+	 */
+	private static double getRelaxedMaxScore(double[] requirementsScore, double[] requirementsCost, double budget) {
+		Integer[] order = new Integer[requirementsScore.length];
+		double remainingBudget = budget;
+		double maxScore = 0;
+
+		for(int i = 0; i <= order.length - 1; i++){
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(
+				(Integer i) -> requirementsScore[i] / requirementsCost[i]).reversed());
+
+		for(int i = 0; i <= order.length - 1 && remainingBudget > 0; i++){
+			int requirement = order[i];
+
+			if(requirementsScore[requirement] <= 0){
+				continue;
+			}
+			if(requirementsCost[requirement] <= remainingBudget){
+				maxScore += requirementsScore[requirement];
+				remainingBudget -= requirementsCost[requirement];
+			}
+			else{
+				maxScore += requirementsScore[requirement] * (remainingBudget / requirementsCost[requirement]);
+				remainingBudget = 0;
+			}
+		}
+
+		return maxScore;
+	}
+	/**
+	 * Instance and budget of a cached bound
+	 */
+	private static final class Key {
+		private final double[] requirementsScore;
+		private final double[] requirementsCost;
+		private final double budget;
+		private final int hash;
+
+		Key(double[] requirementsScore, double[] requirementsCost, double budget) {
+			this.requirementsScore = requirementsScore;
+			this.requirementsCost = requirementsCost;
+			this.budget = budget;
+			this.hash = 31 * (31 * Arrays.hashCode(requirementsScore) + Arrays.hashCode(requirementsCost))
+					+ Double.hashCode(budget);
+		}
+		/**
+		 *
+		 * @return A key holding copies of the vectors, which can be stored
+		 */
+		Key detach() {
+			return new Key(requirementsScore.clone(), requirementsCost.clone(), budget);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof Key)){
+				return false;
+			}
+			Key key = (Key) other;
+			return hash == key.hash && budget == key.budget
+					&& Arrays.equals(requirementsScore, key.requirementsScore)
+					&& Arrays.equals(requirementsCost, key.requirementsCost);
+		}
+	}
+}
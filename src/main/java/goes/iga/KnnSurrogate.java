@@ -0,0 +1,106 @@
+package goes.iga;
+import java.util.Arrays;
+/**
+ *
+ * Surrogate predicting the mean evaluation of the k stored solutions nearest to the given one,
+ * by Hamming distance computed with bit counts over the packed words. Training and updates only
+ * store the samples; a prediction costs O(number of samples x number of words).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class KnnSurrogate implements Surrogate {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Number of neighbors
+	 */
+	private final int k;
+	/**
+	 * Stored samples (copies) and their evaluations
+	 */
+	private long[][] individuals = new long[0][];
+	private double[] evaluations = new double[0];
+	private int numberOfSamples;
+	/**
+	 * Distances and evaluations of the nearest samples found, by increasing distance (reused)
+	 */
+	private final int[] nearestDistances;
+	private final double[] nearestEvaluations;
+	/**
+	 * Constructor
+	 * @param k number of neighbors
+	 */
+	public KnnSurrogate(int k) {
+		if(k < 1){
+			throw new IllegalArgumentException("The number of neighbors must be positive: " + k);
+		}
+		this.k = k;
+		this.nearestDistances = new int[k];
+		this.nearestEvaluations = new double[k];
+	}
+
+	@Override
+	public void train(long[][] individuals, double[] evaluations, int numberOfSamples) {
+		this.numberOfSamples = 0;
+		for(int i = 0; i <= numberOfSamples - 1; i++){
+			update(individuals[i], evaluations[i]);
+		}
+	}
+
+	@Override
+	public void update(long[] individual, double evaluation) {
+		if(numberOfSamples == individuals.length){
+			int capacity = Math.max(16, 2 * numberOfSamples);
+			individuals = Arrays.copyOf(individuals, capacity);
+			evaluations = Arrays.copyOf(evaluations, capacity);
+		}
+		individuals[numberOfSamples] = individual.clone();
+		evaluations[numberOfSamples] = evaluation;
+		numberOfSamples++;
+	}
+
+	@Override
+	public double predict(long[] individual) {
+		int numberOfNeighbors = 0;
+		double sum = 0;
+
+		for(int i = 0; i <= numberOfSamples - 1; i++){
+			long[] sample = individuals[i];
+			int distance = 0;
+
+			for(int w = 0; w <= sample.length - 1; w++){
+				distance += Long.bitCount(sample[w] ^ individual[w]);
+			}
+
+			//Insertion in the nearest samples, the first sample found wins the ties
+			if(numberOfNeighbors < k || distance < nearestDistances[numberOfNeighbors - 1]){
+				int position = numberOfNeighbors < k ? numberOfNeighbors++ : k - 1;
+
+				while(position > 0 && nearestDistances[position - 1] > distance){
+					nearestDistances[position] = nearestDistances[position - 1];
+					nearestEvaluations[position] = nearestEvaluations[position - 1];
+					position--;
+				}
+				nearestDistances[position] = distance;
+				nearestEvaluations[position] = evaluations[i];
+			}
+		}
+
+		for(int i = 0; i <= numberOfNeighbors - 1; i++){
+			sum += nearestEvaluations[i];
+		}
+
+		return numberOfNeighbors > 0 ? sum / numberOfNeighbors : 0;
+	}
+
+	@Override
+	public Surrogate copy() {
+		KnnSurrogate copy = new KnnSurrogate(k);
+
+		copy.individuals = Arrays.copyOf(individuals, individuals.length);
+		copy.evaluations = evaluations.clone();
+		copy.numberOfSamples = numberOfSamples;
+		return copy;
+	}
+}
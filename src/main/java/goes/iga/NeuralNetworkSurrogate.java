@@ -0,0 +1,244 @@
+package goes.iga;
+import java.util.Arrays;
+/**
+ *
+ * Surrogate given by a small multilayer perceptron (one hidden layer of sigmoid units, linear
+ * output) trained by stochastic gradient descent. The weights are stored in flat arrays, the
+ * weights of each requirement being contiguous, and only the requirements included in the
+ * solution are visited, so a prediction costs O(number of included requirements x hidden units).
+ * The inputs are scaled by 1/sqrt(number of requirements) and the evaluations by their max.
+ * An update runs a few descent steps on the new sample, each one followed by a step on a stored
+ * sample, so the previous samples are not forgotten.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class NeuralNetworkSurrogate implements Surrogate {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Number of descent steps on a new sample
+	 */
+	private static final int UPDATE_STEPS = 10;
+	/**
+	 * Seed of the initial weights and of the order of the samples
+	 */
+	private static final long SEED = 0;
+	/**
+	 * Stores the number of requirements
+	 */
+	private final int numberOfRequirements;
+	/**
+	 * Number of hidden units
+	 */
+	private final int hiddenUnits;
+	/**
+	 * Learning rate and number of passes over the samples in a training
+	 */
+	private final double learningRate;
+	private final int epochs;
+	/**
+	 * Scale of the inputs
+	 */
+	private final double inputScale;
+	/**
+	 * Weights from each requirement to each hidden unit (requirement * hiddenUnits + unit)
+	 */
+	private double[] inputWeights;
+	private double[] hiddenBiases;
+	/**
+	 * Weights from each hidden unit to the output
+	 */
+	private double[] outputWeights;
+	private double outputBias;
+	/**
+	 * The evaluations are divided by this scale
+	 */
+	private double evaluationScale = 1;
+	/**
+	 * Stored samples (copies) and their evaluations
+	 */
+	private long[][] individuals = new long[0][];
+	private double[] evaluations = new double[0];
+	private int numberOfSamples;
+	/**
+	 * Outputs of the hidden units (reused)
+	 */
+	private final double[] hiddenOutputs;
+	private RandomStream random = new RandomStream(SEED);
+	/**
+	 * Constructor
+	 * @param numberOfRequirements
+	 * @param hiddenUnits
+	 * @param learningRate
+	 * @param epochs
+	 */
+	public NeuralNetworkSurrogate(int numberOfRequirements, int hiddenUnits, double learningRate, int epochs) {
+		this.numberOfRequirements = numberOfRequirements;
+		this.hiddenUnits = hiddenUnits;
+		this.learningRate = learningRate;
+		this.epochs = epochs;
+		this.inputScale = 1 / Math.sqrt(Math.max(1, numberOfRequirements));
+		this.hiddenOutputs = new double[hiddenUnits];
+		initializeWeights();
+	}
+	/**
+	 * Constructor with 8 hidden units, learning rate 0.1 and 200 epochs
+	 * @param numberOfRequirements
+	 */
+	public NeuralNetworkSurrogate(int numberOfRequirements) {
+		this(numberOfRequirements, 8, 0.1, 200);
+	}
+	/**
+	 * Random weights between -0.5 and 0.5
+	 */
+	private void initializeWeights() {
+		inputWeights = new double[numberOfRequirements * hiddenUnits];
+		hiddenBiases = new double[hiddenUnits];
+		outputWeights = new double[hiddenUnits];
+		outputBias = 0;
+
+		for(int i = 0; i <= inputWeights.length - 1; i++){
+			inputWeights[i] = random.nextDouble() - 0.5;
+		}
+		for(int k = 0; k <= hiddenUnits - 1; k++){
+			hiddenBiases[k] = random.nextDouble() - 0.5;
+			outputWeights[k] = random.nextDouble() - 0.5;
+		}
+	}
+
+	@Override
+	public void train(long[][] individuals, double[] evaluations, int numberOfSamples) {
+		int[] order = new int[numberOfSamples];
+
+		random = new RandomStream(SEED);
+		initializeWeights();
+		this.numberOfSamples = 0;
+		evaluationScale = 1;
+		for(int i = 0; i <= numberOfSamples - 1; i++){
+			addSample(individuals[i], evaluations[i]);
+			evaluationScale = Math.max(evaluationScale, Math.abs(evaluations[i]));
+			order[i] = i;
+		}
+
+		for(int epoch = 0; epoch <= epochs - 1; epoch++){
+			for(int i = order.length - 1; i >= 1; i--){
+				int j = random.nextInt(i + 1);
+				int aux = order[i];
+				order[i] = order[j];
+				order[j] = aux;
+			}
+			for(int i = 0; i <= order.length - 1; i++){
+				descend(this.individuals[order[i]], this.evaluations[order[i]]);
+			}
+		}
+	}
+
+	@Override
+	public void update(long[] individual, double evaluation) {
+		addSample(individual, evaluation);
+
+		for(int step = 0; step <= UPDATE_STEPS - 1; step++){
+			int sample = random.nextInt(numberOfSamples);
+
+			descend(individual, evaluation);
+			descend(individuals[sample], evaluations[sample]);
+		}
+	}
+	/**
+	 * Store a copy of a sample
+	 * @param individual
+	 * @param evaluation
+	 */
+	private void addSample(long[] individual, double evaluation) {
+		if(numberOfSamples == individuals.length){
+			int capacity = Math.max(16, 2 * numberOfSamples);
+			individuals = Arrays.copyOf(individuals, capacity);
+			evaluations = Arrays.copyOf(evaluations, capacity);
+		}
+		individuals[numberOfSamples] = individual.clone();
+		evaluations[numberOfSamples] = evaluation;
+		numberOfSamples++;
+	}
+	/**
+	 * Compute the outputs of the hidden units
+	 * @param individual
+	 * @return The output of the network (scaled evaluation)
+	 */
+	private double forward(long[] individual) {
+		double output = outputBias;
+
+		System.arraycopy(hiddenBiases, 0, hiddenOutputs, 0, hiddenUnits);
+		for(int w = 0; w <= individual.length - 1; w++){
+			long word = individual[w];
+
+			while(word != 0){
+				int offset = (w * Genotype.WORD_SIZE + Long.numberOfTrailingZeros(word)) * hiddenUnits;
+
+				for(int k = 0; k <= hiddenUnits - 1; k++){
+					hiddenOutputs[k] += inputScale * inputWeights[offset + k];
+				}
+				word &= word - 1;
+			}
+		}
+
+		for(int k = 0; k <= hiddenUnits - 1; k++){
+			hiddenOutputs[k] = 1 / (1 + Math.exp(-hiddenOutputs[k]));
+			output += outputWeights[k] * hiddenOutputs[k];
+		}
+
+		return output;
+	}
+	/**
+	 * One step of gradient descent on the squared error of a sample
+	 * @param individual
+	 * @param evaluation
+	 */
+	private void descend(long[] individual, double evaluation) {
+		double error = forward(individual) - evaluation / evaluationScale;
+
+		for(int k = 0; k <= hiddenUnits - 1; k++){
+			double hiddenError = error * outputWeights[k] * hiddenOutputs[k] * (1 - hiddenOutputs[k]);
+
+			outputWeights[k] -= learningRate * error * hiddenOutputs[k];
+			hiddenBiases[k] -= learningRate * hiddenError;
+			//Stored in hiddenOutputs, no longer needed, to update the input weights below
+			hiddenOutputs[k] = learningRate * hiddenError * inputScale;
+		}
+		outputBias -= learningRate * error;
+
+		for(int w = 0; w <= individual.length - 1; w++){
+			long word = individual[w];
+
+			while(word != 0){
+				int offset = (w * Genotype.WORD_SIZE + Long.numberOfTrailingZeros(word)) * hiddenUnits;
+
+				for(int k = 0; k <= hiddenUnits - 1; k++){
+					inputWeights[offset + k] -= hiddenOutputs[k];
+				}
+				word &= word - 1;
+			}
+		}
+	}
+
+	@Override
+	public double predict(long[] individual) {
+		return forward(individual) * evaluationScale;
+	}
+
+	@Override
+	public Surrogate copy() {
+		NeuralNetworkSurrogate copy = new NeuralNetworkSurrogate(numberOfRequirements, hiddenUnits, learningRate, epochs);
+
+		copy.inputWeights = inputWeights.clone();
+		copy.hiddenBiases = hiddenBiases.clone();
+		copy.outputWeights = outputWeights.clone();
+		copy.outputBias = outputBias;
+		copy.evaluationScale = evaluationScale;
+		copy.individuals = Arrays.copyOf(individuals, individuals.length);
+		copy.evaluations = evaluations.clone();
+		copy.numberOfSamples = numberOfSamples;
+		copy.random = new RandomStream(random.getSeed(), random.getGamma());
+		return copy;
+	}
+}
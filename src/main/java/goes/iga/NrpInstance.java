@@ -0,0 +1,352 @@
+package goes.iga;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+/**
+ *
+ * This class represents an instance of The Next Release Problem: the importance of each customer,
+ * the importance of each requirement for each customer and the cost of each requirement.
+ * It is immutable, so a single instance can be shared by several solvers.
+ *
+ * Two file formats are supported. The text format, read in a single streaming pass, is:
+ * the number of customers and of requirements, the customers importances, one line per customer
+ * with the importance of each requirement, and the requirements costs. The binary format starts
+ * with the magic number "NRPB" and a version, followed by the number of customers and of
+ * requirements (int), the customers importances (double), the requirements importances by
+ * customer (int) and the requirements costs (double), all big-endian. It is memory-mapped and
+ * copied in bulk, with no parsing.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public final class NrpInstance {
+	/**
+	 * "NRPB"
+	 */
+	private static final int MAGIC = 0x4E525042;
+	/**
+	 * Version of the binary format
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * Size of the buffer used to read text files
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * Stores the importance of each customer
+	 */
+	private final double[] customersImportance;
+	/**
+	 * Stores the importance of each requirement (columns) for each customer (rows)
+	 */
+	private final int[][] requirementsImportances;
+	/**
+	 * Stores the cost of each requirement
+	 */
+	private final double[] requirementsCosts;
+	/**
+	 * Constructor, the vectors are not copied so they must not be changed afterwards
+	 * @param customersImportance
+	 * @param requirementsImportances
+	 * @param requirementsCosts
+	 */
+	NrpInstance(double[] customersImportance, int[][] requirementsImportances, double[] requirementsCosts) {
+		this.customersImportance = customersImportance;
+		this.requirementsImportances = requirementsImportances;
+		this.requirementsCosts = requirementsCosts;
+	}
+	/**
+	 * Read an instance, in text or binary format
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static NrpInstance read(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+			ByteBuffer header = ByteBuffer.allocate(4);
+
+			while(header.hasRemaining() && channel.read(header) >= 0){
+			}
+			channel.position(0);
+
+			if(header.position() == 4 && header.getInt(0) == MAGIC){
+				return readBinary(channel);
+			}
+			return readText(channel);
+		}
+	}
+	/**
+	 * Read the text format in a single pass
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	private static NrpInstance readText(FileChannel channel) throws IOException {
+		Tokenizer tokenizer = new Tokenizer(channel);
+		int numberOfCustomers = (int) tokenizer.nextLong();
+		int numberOfRequirements = (int) tokenizer.nextLong();
+		double[] customersImportance = new double[numberOfCustomers];
+		int[][] requirementsImportances = new int[numberOfCustomers][numberOfRequirements];
+		double[] requirementsCosts = new double[numberOfRequirements];
+
+		for(int i = 0; i <= numberOfCustomers - 1; i++){
+			customersImportance[i] = tokenizer.nextDouble();
+		}
+
+		for(int i = 0; i <= numberOfCustomers - 1; i++){
+			for(int j = 0; j <= numberOfRequirements - 1; j++){
+				requirementsImportances[i][j] = (int) tokenizer.nextLong();
+			}
+		}
+
+		for(int j = 0; j <= numberOfRequirements - 1; j++){
+			requirementsCosts[j] = tokenizer.nextLong();
+		}
+
+		return new NrpInstance(customersImportance, requirementsImportances, requirementsCosts);
+	}
+	/**
+	 * Read the binary format by mapping the file, one region per section so each region
+	 * stays under the 2GB limit of a mapping
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	private static NrpInstance readBinary(FileChannel channel) throws IOException {
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 16);
+
+		header.getInt(); //magic
+		int version = header.getInt();
+		if(version != VERSION){
+			throw new IOException("Unsupported instance version: " + version);
+		}
+
+		int numberOfCustomers = header.getInt();
+		int numberOfRequirements = header.getInt();
+		long expectedSize = getBinarySize(numberOfCustomers, numberOfRequirements);
+		if(channel.size() < expectedSize){
+			throw new EOFException("Instance has " + channel.size() + " bytes, expected " + expectedSize);
+		}
+
+		double[] customersImportance = new double[numberOfCustomers];
+		int[][] requirementsImportances = new int[numberOfCustomers][numberOfRequirements];
+		double[] requirementsCosts = new double[numberOfRequirements];
+		long offset = 16;
+
+		channel.map(FileChannel.MapMode.READ_ONLY, offset, 8L * numberOfCustomers).asDoubleBuffer().get(customersImportance);
+		offset += 8L * numberOfCustomers;
+
+		for(int i = 0; i <= numberOfCustomers - 1; i++){
+			channel.map(FileChannel.MapMode.READ_ONLY, offset, 4L * numberOfRequirements).asIntBuffer().get(requirementsImportances[i]);
+			offset += 4L * numberOfRequirements;
+		}
+
+		channel.map(FileChannel.MapMode.READ_ONLY, offset, 8L * numberOfRequirements).asDoubleBuffer().get(requirementsCosts);
+
+		return new NrpInstance(customersImportance, requirementsImportances, requirementsCosts);
+	}
+	/**
+	 *
+	 * @param numberOfCustomers
+	 * @param numberOfRequirements
+	 * @return the size in bytes of an instance in binary format
+	 */
+	private static long getBinarySize(int numberOfCustomers, int numberOfRequirements) {
+		return 16L + 8L * numberOfCustomers + 4L * numberOfCustomers * numberOfRequirements + 8L * numberOfRequirements;
+	}
+	/**
+	 * Write the instance in binary format
+	 * @param file
+	 * @throws IOException
+	 */
+	public void writeBinary(File file) throws IOException {
+		int numberOfCustomers = getNumberOfCustomers();
+		int numberOfRequirements = getNumberOfRequirements();
+
+		try(RandomAccessFile output = new RandomAccessFile(file, "rw"); FileChannel channel = output.getChannel()){
+			output.setLength(getBinarySize(numberOfCustomers, numberOfRequirements));
+			long offset = 16;
+
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(numberOfCustomers);
+			header.putInt(numberOfRequirements);
+
+			channel.map(FileChannel.MapMode.READ_WRITE, offset, 8L * numberOfCustomers).asDoubleBuffer().put(customersImportance);
+			offset += 8L * numberOfCustomers;
+
+			for(int i = 0; i <= numberOfCustomers - 1; i++){
+				channel.map(FileChannel.MapMode.READ_WRITE, offset, 4L * numberOfRequirements).asIntBuffer().put(requirementsImportances[i]);
+				offset += 4L * numberOfRequirements;
+			}
+
+			channel.map(FileChannel.MapMode.READ_WRITE, offset, 8L * numberOfRequirements).asDoubleBuffer().put(requirementsCosts);
+		}
+	}
+	/**
+	 *
+	 * @return the number of customers
+	 */
+	public int getNumberOfCustomers() {
+		return customersImportance.length;
+	}
+	/**
+	 *
+	 * @return the number of requirements
+	 */
+	public int getNumberOfRequirements() {
+		return requirementsCosts.length;
+	}
+	/**
+	 *
+	 * @return A copy of the importance of each customer
+	 */
+	public double[] getCustomersImportance() {
+		return customersImportance.clone();
+	}
+	/**
+	 *
+	 * @param customer
+	 * @param requirement
+	 * @return The importance of the requirement for the customer
+	 */
+	public int getRequirementImportance(int customer, int requirement) {
+		return requirementsImportances[customer][requirement];
+	}
+	/**
+	 *
+	 * @return A copy of the importance of each requirement for each customer
+	 */
+	public double[][] getRequirementsImportances() {
+		double[][] importances = new double[getNumberOfCustomers()][getNumberOfRequirements()];
+
+		for(int i = 0; i <= importances.length - 1; i++){
+			for(int j = 0; j <= importances[i].length - 1; j++){
+				importances[i][j] = requirementsImportances[i][j];
+			}
+		}
+
+		return importances;
+	}
+	/**
+	 *
+	 * @return A copy of the cost of each requirement
+	 */
+	public double[] getRequirementsCosts() {
+		return requirementsCosts.clone();
+	}
+	/**
+	 *
+	 * @return The score of each requirement, the sum of its importances weighted by the customers importances
+	 */
+	public double[] getRequirementsScore() {
+		double[] requirementsScore = new double[getNumberOfRequirements()];
+
+		for (int i = 0; i <= customersImportance.length - 1; i++) {
+			int[] importances = requirementsImportances[i];
+
+			for (int j = 0; j <= requirementsScore.length - 1; j++) {
+				requirementsScore[j] += customersImportance[i] * importances[j];
+			}
+		}
+
+		return requirementsScore;
+	}
+	/**
+	 * Splits a text file in numbers, reading it in blocks
+	 */
+	private static final class Tokenizer {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final StringBuilder token = new StringBuilder();
+
+		Tokenizer(FileChannel channel) throws IOException {
+			this.channel = channel;
+			buffer.flip();
+		}
+
+		/**
+		 *
+		 * @return the next byte, or -1 at the end of the file
+		 * @throws IOException
+		 */
+		private int read() throws IOException {
+			if(!buffer.hasRemaining()){
+				buffer.clear();
+				int read;
+				do{
+					read = channel.read(buffer);
+				} while(read == 0);
+				buffer.flip();
+				if(read < 0){
+					return -1;
+				}
+			}
+			return buffer.get() & 0xFF;
+		}
+
+		/**
+		 *
+		 * @return the first byte of the next token
+		 * @throws IOException
+		 */
+		private int skipWhitespace() throws IOException {
+			int c = read();
+			while(c == ' ' || c == '\n' || c == '\r' || c == '\t'){
+				c = read();
+			}
+			if(c < 0){
+				throw new EOFException("Unexpected end of instance");
+			}
+			return c;
+		}
+
+		/**
+		 *
+		 * @return the next token as an integer
+		 * @throws IOException
+		 */
+		long nextLong() throws IOException {
+			int c = skipWhitespace();
+			boolean negative = c == '-';
+			long value = 0;
+
+			if(negative){
+				c = read();
+			}
+			while(c >= '0' && c <= '9'){
+				value = 10 * value + (c - '0');
+				c = read();
+			}
+			if(c >= 0 && c != ' ' && c != '\n' && c != '\r' && c != '\t'){
+				throw new IOException("Invalid integer in instance near '" + (char) c + "'");
+			}
+
+			return negative ? -value : value;
+		}
+
+		/**
+		 *
+		 * @return the next token as a real number
+		 * @throws IOException
+		 */
+		double nextDouble() throws IOException {
+			int c = skipWhitespace();
+
+			token.setLength(0);
+			while(c >= 0 && c != ' ' && c != '\n' && c != '\r' && c != '\t'){
+				token.append((char) c);
+				c = read();
+			}
+
+			return Double.parseDouble(token.toString());
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package goes.iga;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+/**
+ *
+ * This class splits the evaluation of a population in contiguous chunks, one per worker, and
+ * runs them on a fork-join pool. Each worker owns its copy of the learning model, so workers
+ * never share mutable state and write their results in disjoint positions of the output vectors.
+ * With a single worker the chunks run on the calling thread. Closing the evaluator shuts down its
+ * pool if it created it; a pool given to it is left to its owner.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class PopulationEvaluator implements AutoCloseable {
+	/**
+	 * Work done by a worker over the positions from (inclusive) to (exclusive)
+	 */
+	public interface Chunk {
+		void evaluate(int worker, int from, int to) throws Exception;
+	}
+	/**
+	 * Stores the number of workers
+	 */
+	private final int numberOfWorkers;
+	/**
+	 * Pool used to run the chunks, null when there is only one worker
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * True if the pool was created by this evaluator, which shuts it down
+	 */
+	private final boolean ownsPool;
+	/**
+	 * Copy of the learning model used by each worker
+	 */
+	private final Surrogate[] models;
+	/**
+	 * Incremented each time the model is set
+	 */
+	private long modelVersion;
+	/**
+	 * Constructor
+	 * @param numberOfWorkers
+	 */
+	public PopulationEvaluator(int numberOfWorkers) {
+		this(numberOfWorkers, numberOfWorkers > 1 ? new ForkJoinPool(numberOfWorkers) : null, true);
+	}
+	/**
+	 * Constructor using a given pool, which is not shut down by {@link #close()}
+	 * @param numberOfWorkers
+	 * @param pool
+	 */
+	public PopulationEvaluator(int numberOfWorkers, ForkJoinPool pool) {
+		this(numberOfWorkers, pool, false);
+	}
+	private PopulationEvaluator(int numberOfWorkers, ForkJoinPool pool, boolean ownsPool) {
+		if(numberOfWorkers < 1){
+			throw new IllegalArgumentException("Number of workers must be positive: " + numberOfWorkers);
+		}
+		this.numberOfWorkers = numberOfWorkers;
+		this.pool = pool;
+		this.ownsPool = ownsPool;
+		this.models = new Surrogate[numberOfWorkers];
+	}
+	/**
+	 *
+	 * @return the number of workers
+	 */
+	public int getNumberOfWorkers() {
+		return numberOfWorkers;
+	}
+	/**
+	 * Set the trained model: the first worker uses it and the others use copies of it
+	 * @param model
+	 * @throws Exception
+	 */
+	public void setModel(Surrogate model) throws Exception {
+		models[0] = model;
+
+		for(int i = 1; i <= numberOfWorkers - 1; i++){
+			models[i] = model == null ? null : model.copy();
+		}
+		modelVersion++;
+	}
+	/**
+	 *
+	 * @return A number which changes each time the model is set (e.g. after a new training)
+	 */
+	public long getModelVersion() {
+		return modelVersion;
+	}
+	/**
+	 *
+	 * @param worker
+	 * @return The model owned by the worker
+	 */
+	public Surrogate getModel(int worker) {
+		return models[worker];
+	}
+	/**
+	 * Predict the evaluations of the given packed solutions, split among the workers
+	 * @param individuals
+	 * @param predictions output, the prediction of each solution in the same position
+	 * @throws Exception
+	 */
+	public void predict(long[][] individuals, double[] predictions) throws Exception {
+		evaluate(0, individuals.length, (worker, from, to) -> {
+			Surrogate model = models[worker];
+
+			for (int i = from; i < to; i++) {
+				predictions[i] = model.predict(individuals[i]);
+			}
+		});
+	}
+	/**
+	 * Predict the evaluations of the solutions individuals[indices[j]], for j from (inclusive)
+	 * to (exclusive), split among the workers
+	 * @param individuals
+	 * @param indices
+	 * @param from
+	 * @param to
+	 * @param predictions output, the prediction of each solution in the same position of individuals
+	 * @throws Exception
+	 */
+	public void predict(long[][] individuals, int[] indices, int from, int to, double[] predictions) throws Exception {
+		evaluate(from, to, (worker, start, end) -> {
+			Surrogate model = models[worker];
+
+			for (int j = start; j < end; j++) {
+				int index = indices[j];
+				predictions[index] = model.predict(individuals[index]);
+			}
+		});
+	}
+	/**
+	 * Evaluate the positions from (inclusive) to (exclusive), split among the workers
+	 * @param from
+	 * @param to
+	 * @param chunk
+	 * @throws Exception
+	 */
+	public void evaluate(int from, int to, Chunk chunk) throws Exception {
+		int numberOfChunks = Math.min(numberOfWorkers, to - from);
+
+		if(numberOfChunks <= 1 || pool == null){
+			if(to > from){
+				chunk.evaluate(0, from, to);
+			}
+			return;
+		}
+
+		ChunkAction[] actions = new ChunkAction[numberOfChunks];
+		int chunkSize = (to - from) / numberOfChunks;
+		int remainder = (to - from) % numberOfChunks;
+		int start = from;
+
+		for(int i = 0; i <= numberOfChunks - 1; i++){
+			int end = start + chunkSize + (i < remainder ? 1 : 0);
+			actions[i] = new ChunkAction(chunk, i, start, end);
+			start = end;
+		}
+
+		try{
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll(actions);
+				}
+			});
+		}
+		catch(ChunkException e){
+			Throwable cause = e;
+
+			while(cause instanceof ChunkException){
+				cause = cause.getCause();
+			}
+			throw (Exception) cause;
+		}
+	}
+	/**
+	 * Shut down the pool if this evaluator created it
+	 */
+	@Override
+	public void close() {
+		if(ownsPool && pool != null){
+			pool.shutdown();
+		}
+	}
+	/**
+	 * Task of a single chunk
+	 */
+	private static class ChunkAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Chunk chunk;
+		private final int worker;
+		private final int from;
+		private final int to;
+
+		ChunkAction(Chunk chunk, int worker, int from, int to) {
+			this.chunk = chunk;
+			this.worker = worker;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			try{
+				chunk.evaluate(worker, from, to);
+			}
+			catch(RuntimeException e){
+				throw e;
+			}
+			catch(Exception e){
+				throw new ChunkException(e);
+			}
+		}
+	}
+	/**
+	 * Carries the checked exception thrown by a chunk
+	 */
+	private static class ChunkException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		ChunkException(Exception cause) {
+			super(cause);
+		}
+	}
+}
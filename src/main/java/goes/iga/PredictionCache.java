@@ -0,0 +1,296 @@
+package goes.iga;
+import java.util.Arrays;
+import java.util.HashMap;
+/**
+ *
+ * This class stores the predictions of the learning model for packed solutions (see {@link Genotype}),
+ * so a solution already predicted by the current model is not presented to the model again, and
+ * copies of a solution in the same batch are presented to the model only once.
+ * Solutions are found by the hash of their words and compared word by word. The number of stored
+ * solutions is bounded, and the CLOCK policy chooses which one is removed when it is full.
+ * All the predictions are removed when the model changes, which is detected by the version of the
+ * model given by {@link PopulationEvaluator#getModelVersion()}.
+ *
+ * This class is not thread-safe: it is meant to be used by the thread which dispatches the predictions.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class PredictionCache {
+	/**
+	 * Maximum number of stored predictions
+	 */
+	private final int capacity;
+	/**
+	 * Position of each stored solution
+	 */
+	private final HashMap<Key, Integer> positions;
+	/**
+	 * Solution stored in each position
+	 */
+	private final Key[] keys;
+	/**
+	 * Prediction stored in each position
+	 */
+	private final double[] values;
+	/**
+	 * Set when the prediction is used, cleared when the clock hand passes by
+	 */
+	private final boolean[] referenced;
+	/**
+	 * Set while the prediction of the position is being made by the model
+	 */
+	private final boolean[] pending;
+	/**
+	 * Solutions of the batch not found in the cache, and their reserved positions (-1 if none)
+	 */
+	private int[] missIndices = new int[0];
+	private int[] missPositions = new int[0];
+	/**
+	 * Copies of solutions of the batch being predicted, and the positions of their predictions
+	 */
+	private int[] followerIndices = new int[0];
+	private int[] followerPositions = new int[0];
+	/**
+	 * Number of used positions
+	 */
+	private int size;
+	/**
+	 * Clock hand
+	 */
+	private int hand;
+	/**
+	 * Version of the model which made the stored predictions
+	 */
+	private long modelVersion = -1;
+	/**
+	 * Key reused by the lookups
+	 */
+	private final Key probe = new Key();
+	/**
+	 * Number of lookups which found a prediction
+	 */
+	private long hits;
+	/**
+	 * Number of lookups which did not find a prediction
+	 */
+	private long misses;
+	/**
+	 * Constructor
+	 * @param capacity
+	 */
+	public PredictionCache(int capacity) {
+		if(capacity < 1){
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		this.positions = new HashMap<Key, Integer>(2 * capacity);
+		this.keys = new Key[capacity];
+		this.values = new double[capacity];
+		this.referenced = new boolean[capacity];
+		this.pending = new boolean[capacity];
+	}
+	/**
+	 * Predict the evaluations of the solutions individuals[indices[j]], for j from (inclusive) to
+	 * (exclusive), presenting to the model only the distinct solutions not predicted yet
+	 * @param evaluator workers presenting the solutions to the model
+	 * @param individuals
+	 * @param indices
+	 * @param from
+	 * @param to
+	 * @param predictions output, the prediction of each solution in the same position of individuals
+	 * @throws Exception
+	 */
+	public void predict(PopulationEvaluator evaluator, long[][] individuals, int[] indices,
+			int from, int to, double[] predictions) throws Exception {
+		int numberOfMisses = 0;
+		int numberOfFollowers = 0;
+
+		validate(evaluator.getModelVersion());
+		if(missIndices.length < to - from){
+			missIndices = new int[to - from];
+			missPositions = new int[to - from];
+			followerIndices = new int[to - from];
+			followerPositions = new int[to - from];
+		}
+
+		for(int j = from; j <= to - 1; j++){
+			int index = indices[j];
+			int position = find(individuals[index]);
+
+			if(position < 0){
+				missIndices[numberOfMisses] = index;
+				missPositions[numberOfMisses] = numberOfMisses < capacity - 1 ? reserve(individuals[index]) : -1;
+				numberOfMisses++;
+			}
+			else if(pending[position]){
+				followerIndices[numberOfFollowers] = index;
+				followerPositions[numberOfFollowers] = position;
+				numberOfFollowers++;
+			}
+			else{
+				predictions[index] = values[position];
+			}
+		}
+
+		try{
+			evaluator.predict(individuals, missIndices, 0, numberOfMisses, predictions);
+		}
+		catch(Exception e){
+			invalidate();
+			throw e;
+		}
+
+		for(int i = 0; i <= numberOfMisses - 1; i++){
+			if(missPositions[i] >= 0){
+				values[missPositions[i]] = predictions[missIndices[i]];
+				pending[missPositions[i]] = false;
+			}
+		}
+
+		for(int i = 0; i <= numberOfFollowers - 1; i++){
+			predictions[followerIndices[i]] = values[followerPositions[i]];
+		}
+	}
+	/**
+	 * Remove all predictions if they were made by another version of the model
+	 * @param modelVersion
+	 */
+	public void validate(long modelVersion) {
+		if(this.modelVersion != modelVersion){
+			invalidate();
+			this.modelVersion = modelVersion;
+		}
+	}
+	/**
+	 * Remove all predictions
+	 */
+	public void invalidate() {
+		positions.clear();
+		Arrays.fill(keys, null);
+		Arrays.fill(referenced, false);
+		Arrays.fill(pending, false);
+		size = 0;
+		hand = 0;
+		modelVersion = -1;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @return The position of the prediction of the given solution, or -1 if there is none
+	 */
+	public int find(long[] individual) {
+		Integer position = positions.get(probe.wrap(individual));
+
+		probe.wrap(null);
+		if(position == null){
+			misses++;
+			return -1;
+		}
+		hits++;
+		referenced[position] = true;
+		return position;
+	}
+	/**
+	 *
+	 * @param position given by {@link #find(long[])}
+	 * @return The stored prediction
+	 */
+	public double getPrediction(int position) {
+		return values[position];
+	}
+	/**
+	 * Store the prediction of a solution which is not stored yet
+	 * @param individual copied by the cache
+	 * @param prediction
+	 */
+	public void put(long[] individual, double prediction) {
+		int position = reserve(individual);
+
+		values[position] = prediction;
+		pending[position] = false;
+	}
+	/**
+	 * Reserve a position for a solution whose prediction is being made. Positions being
+	 * predicted are never chosen by the clock, and at most capacity - 1 of them are reserved
+	 * by a batch, so the clock always finds a position.
+	 * @param individual copied by the cache
+	 * @return the reserved position
+	 */
+	private int reserve(long[] individual) {
+		int position;
+
+		if(size < capacity){
+			position = size++;
+		}
+		else{
+			while(referenced[hand] || pending[hand]){
+				referenced[hand] = false;
+				hand = (hand + 1) % capacity;
+			}
+			position = hand;
+			hand = (hand + 1) % capacity;
+			positions.remove(keys[position]);
+		}
+
+		Key key = new Key().wrap(individual.clone());
+		keys[position] = key;
+		referenced[position] = false;
+		pending[position] = true;
+		positions.put(key, position);
+
+		return position;
+	}
+	/**
+	 *
+	 * @return the number of stored predictions
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 *
+	 * @return the maximum number of stored predictions
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	/**
+	 *
+	 * @return the number of lookups which found a prediction
+	 */
+	public long getHits() {
+		return hits;
+	}
+	/**
+	 *
+	 * @return the number of lookups which did not find a prediction
+	 */
+	public long getMisses() {
+		return misses;
+	}
+	/**
+	 * Packed solution used as key, compared word by word
+	 */
+	static final class Key {
+		private long[] words;
+		private int hash;
+
+		Key wrap(long[] words) {
+			this.words = words;
+			this.hash = words == null ? 0 : Arrays.hashCode(words);
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Key && hash == ((Key) other).hash && Arrays.equals(words, ((Key) other).words);
+		}
+	}
+}
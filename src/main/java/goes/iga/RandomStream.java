@@ -0,0 +1,150 @@
+package goes.iga;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ *
+ * This class is a stream of pseudorandom numbers generated by the SplitMix64 algorithm, the one of
+ * {@link java.util.SplittableRandom}: the state is a single word advanced by a constant (the gamma of
+ * the stream) and mixed to give each number. A stream is split into independent streams, e.g. one
+ * per execution, island or genetic operator, so the numbers drawn by one of them do not depend on
+ * how many numbers the others draw or on which thread they run, and the same seed always gives the
+ * same numbers. Unlike {@link java.util.Random} there is no synchronization: a stream must be used
+ * by one thread at a time. Its state can be saved and restored (see {@link #getSeed()} and {@link #getGamma()}).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public final class RandomStream implements Serializable {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Gamma of the streams created from a seed (odd, the golden ratio scaled to 64 bits)
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	/**
+	 * 2^-53, to build doubles from 53 random bits
+	 */
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+	/**
+	 * Source of the seeds of the unseeded streams, only used when a stream is created
+	 */
+	private static final AtomicLong SEEDS = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+	/**
+	 * State, advanced by gamma at each number
+	 */
+	private long seed;
+	private final long gamma;
+	/**
+	 * Constructor of a stream whose numbers are given by the seed
+	 * @param seed
+	 */
+	public RandomStream(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+	/**
+	 * Constructor of a stream with an unpredictable seed
+	 */
+	public RandomStream() {
+		long seed = SEEDS.getAndAdd(2 * GOLDEN_GAMMA);
+
+		this.seed = mix64(seed);
+		this.gamma = mixGamma(seed + GOLDEN_GAMMA);
+	}
+	/**
+	 * Constructor of a stream in the given state
+	 * @param seed
+	 * @param gamma odd
+	 */
+	RandomStream(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+	/**
+	 *
+	 * @return A new stream independent of this one, which advances this one
+	 */
+	public RandomStream split() {
+		return new RandomStream(nextLong(), mixGamma(nextSeed()));
+	}
+	/**
+	 *
+	 * @return A random long
+	 */
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+	/**
+	 *
+	 * @return A random int
+	 */
+	public int nextInt() {
+		return mix32(nextSeed());
+	}
+	/**
+	 *
+	 * @return A random boolean
+	 */
+	public boolean nextBoolean() {
+		return mix32(nextSeed()) < 0;
+	}
+	/**
+	 *
+	 * @param bound positive
+	 * @return A random int uniformly distributed between 0 (inclusive) and bound (exclusive)
+	 */
+	public int nextInt(int bound) {
+		if(bound <= 0){
+			throw new IllegalArgumentException("Bound must be positive: " + bound);
+		}
+		int r = mix32(nextSeed());
+		int m = bound - 1;
+
+		if((bound & m) == 0){
+			return r & m;
+		}
+		//Values of the last incomplete range are rejected, so all the values are equally likely
+		for(int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1){
+		}
+		return r;
+	}
+	/**
+	 *
+	 * @return A random double uniformly distributed between 0 (inclusive) and 1 (exclusive)
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+	/**
+	 *
+	 * @return the state, which a stream created with it and the gamma continues
+	 */
+	long getSeed() {
+		return seed;
+	}
+	long getGamma() {
+		return gamma;
+	}
+	private long nextSeed() {
+		return seed += gamma;
+	}
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+	/**
+	 *
+	 * @param z
+	 * @return An odd gamma with enough bit transitions to give a good stream
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		return Long.bitCount(z ^ (z >>> 1)) < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
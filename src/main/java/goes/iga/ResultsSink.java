@@ -0,0 +1,563 @@
+package goes.iga;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ *
+ * This class writes one record per generation and one per execution of the solvers to a file, in
+ * JSON Lines or in a compact binary columnar format. The solver threads only copy the values in a
+ * record and queue it; a single writer thread encodes the records and writes them with a file
+ * channel, draining all the queued records before each write. The queue is bounded: when the
+ * writer is behind, the solvers wait for it. Closing the sink (or the end of the JVM) writes the
+ * queued records and forces them to the disk.
+ *
+ * A solver is connected to the sink with {@link #getListener(InteractiveGeneticAlgorithm, int, int, EvolutionListener)},
+ * or with {@link ExperimentScheduler#setResultsSink(ResultsSink)} for all the executions of a scheduler.
+ *
+ * JSON Lines: one object per line, {"type":"generation",...} with the fields of {@link GenerationMetrics},
+ * or {"type":"execution",...} with the fields of {@link RunResult} and the time of the execution.
+ * Numbers are written without locale, and non-finite ones as null.
+ *
+ * Binary: the magic number "IGAR" and a version (int), then blocks of up to {@link #BLOCK_SIZE}
+ * records of the same type: the type (byte, 1 for generations and 2 for executions), the number of
+ * records and the length of the columns in bytes (int), and the columns, each one with the value of
+ * every record of the block, all big-endian.
+ * Generations: experiment, execution, generation (int), generation time, the time of each phase in
+ * the order of {@link GenerationMetrics.Phase} (long), human evaluations (int), predictions, model
+ * predictions, allocated bytes (long), best and mean fitness (double).
+ * Executions: experiment, execution (int), time (long), number of requirements (int), score of the
+ * best solution, mean relative absolute error (double), ordinal of the stopping reason (byte, -1 if
+ * none), number of generations (int), and the best solutions packed (see {@link Genotype}), each
+ * one in the number of words of its number of requirements.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class ResultsSink implements AutoCloseable {
+	/**
+	 * Formats of the file
+	 */
+	public enum Format {
+		JSON_LINES,
+		BINARY
+	}
+	/**
+	 * "IGAR"
+	 */
+	private static final int MAGIC = 0x49474152;
+	/**
+	 * Version of the binary format
+	 */
+	private static final int VERSION = 1;
+	private static final byte GENERATION = 1;
+	private static final byte EXECUTION = 2;
+	/**
+	 * Max number of records of a block of the binary format
+	 */
+	static final int BLOCK_SIZE = 1024;
+	/**
+	 * Max number of queued records
+	 */
+	private static final int QUEUE_CAPACITY = 8192;
+	/**
+	 * Queued by close to stop the writer
+	 */
+	private static final Record END = new Record(0, 0) {
+		@Override
+		void appendJson(StringBuilder json) {
+		}
+	};
+	/**
+	 * Values of a record, copied on the solver thread
+	 */
+	private abstract static class Record {
+		final int experiment;
+		final int execution;
+		Record(int experiment, int execution) {
+			this.experiment = experiment;
+			this.execution = execution;
+		}
+		abstract void appendJson(StringBuilder json);
+	}
+	private static final class GenerationRecord extends Record {
+		private final int generation;
+		private final long generationTime;
+		private final long[] phaseTimes = new long[GenerationMetrics.Phase.values().length];
+		private final int humanEvaluations;
+		private final long predictions;
+		private final long modelPredictions;
+		private final long allocatedBytes;
+		private final double bestFitness;
+		private final double meanFitness;
+		GenerationRecord(int experiment, int execution, GenerationMetrics metrics) {
+			super(experiment, execution);
+			this.generation = metrics.getGeneration();
+			this.generationTime = metrics.getGenerationTime();
+			for(GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()){
+				phaseTimes[phase.ordinal()] = metrics.getPhaseTime(phase);
+			}
+			this.humanEvaluations = metrics.getHumanEvaluations();
+			this.predictions = metrics.getPredictions();
+			this.modelPredictions = metrics.getModelPredictions();
+			this.allocatedBytes = metrics.getAllocatedBytes();
+			this.bestFitness = metrics.getBestFitness();
+			this.meanFitness = metrics.getMeanFitness();
+		}
+		@Override
+		void appendJson(StringBuilder json) {
+			json.append("{\"type\":\"generation\",\"experiment\":").append(experiment)
+				.append(",\"execution\":").append(execution)
+				.append(",\"generation\":").append(generation)
+				.append(",\"generationTime\":").append(generationTime);
+			for(GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()){
+				json.append(",\"").append(HistogramRecorder.getMetricName(phase)).append("Time\":").append(phaseTimes[phase.ordinal()]);
+			}
+			json.append(",\"humanEvaluations\":").append(humanEvaluations)
+				.append(",\"predictions\":").append(predictions)
+				.append(",\"modelPredictions\":").append(modelPredictions)
+				.append(",\"allocatedBytes\":").append(allocatedBytes)
+				.append(",\"bestFitness\":");
+			appendNumber(json, bestFitness);
+			json.append(",\"meanFitness\":");
+			appendNumber(json, meanFitness);
+			json.append("}\n");
+		}
+	}
+	private static final class ExecutionRecord extends Record {
+		private final long time;
+		private final RunResult runResult;
+		ExecutionRecord(int experiment, int execution, long time, RunResult runResult) {
+			super(experiment, execution);
+			this.time = time;
+			this.runResult = runResult;
+		}
+		@Override
+		void appendJson(StringBuilder json) {
+			json.append("{\"type\":\"execution\",\"experiment\":").append(experiment)
+				.append(",\"execution\":").append(execution)
+				.append(",\"time\":").append(time)
+				.append(",\"numberOfRequirements\":").append(runResult.getNumberOfRequirements())
+				.append(",\"bestIndividualScore\":");
+			appendNumber(json, runResult.getBestIndividualScore());
+			json.append(",\"meanRelativeAbsoluteError\":");
+			appendNumber(json, runResult.getMeanRelativeAbsoluteError());
+			json.append(",\"stoppingReason\":");
+			if(runResult.getStoppingReason() != null){
+				json.append('"').append(runResult.getStoppingReason().name()).append('"');
+			}
+			else{
+				json.append("null");
+			}
+			json.append(",\"numberOfGenerations\":").append(runResult.getNumberOfGenerations())
+				.append(",\"bestIndividual\":\"")
+				.append(Genotype.toString(runResult.getPackedBestIndividual(), runResult.getNumberOfRequirements()))
+				.append("\"}\n");
+		}
+	}
+	private final Format format;
+	private final FileChannel channel;
+	private final ArrayBlockingQueue<Record> records = new ArrayBlockingQueue<Record>(QUEUE_CAPACITY);
+	private final Thread writer;
+	/**
+	 * Closes the sink if the JVM ends before
+	 */
+	private final Thread shutdownHook;
+	/**
+	 * Encoded records not yet written, used by the writer only
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+	private final StringBuilder json = new StringBuilder();
+	/**
+	 * Records of the blocks being filled (binary format), used by the writer only
+	 */
+	private final GenerationRecord[] generationBlock = new GenerationRecord[BLOCK_SIZE];
+	private final ExecutionRecord[] executionBlock = new ExecutionRecord[BLOCK_SIZE];
+	private int generationBlockSize;
+	private int executionBlockSize;
+	/**
+	 * Error of the writer, null while it writes
+	 */
+	private volatile IOException failure;
+	/**
+	 * Number of records not queued because the solver was interrupted while the queue was full
+	 */
+	private final AtomicInteger droppedRecords = new AtomicInteger();
+	/**
+	 * Set by close, under the write lock: a record is queued under the read lock, so it is queued
+	 * before the end of the writer or rejected
+	 */
+	private boolean closed;
+	private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+	/**
+	 * Constructor, replaces the file and starts the writer
+	 * @param file
+	 * @param format
+	 * @throws IOException
+	 */
+	public ResultsSink(File file, Format format) throws IOException {
+		this.format = format;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		if(format == Format.BINARY){
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+		}
+		this.writer = new Thread(this::write, "results-sink-writer");
+		writer.setDaemon(true);
+		writer.start();
+		this.shutdownHook = new Thread(() -> {
+			try{
+				close();
+			}
+			catch(IOException e){
+				e.printStackTrace();
+			}
+		}, "results-sink-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+	/**
+	 *
+	 * @param iga solver of the execution
+	 * @param experiment index of the experiment
+	 * @param execution index of the execution in the experiment
+	 * @param listener also notified, may be null
+	 * @return A listener to give to the solver, which records its generations and its results
+	 */
+	public EvolutionListener getListener(InteractiveGeneticAlgorithm iga, int experiment, int execution, EvolutionListener listener) {
+		return new EvolutionListener() {
+			@Override
+			public void generationCompleted(GenerationMetrics metrics) {
+				if(listener != null){
+					listener.generationCompleted(metrics);
+				}
+				addGeneration(experiment, execution, metrics);
+			}
+			@Override
+			public void solveCompleted(long time) {
+				if(listener != null){
+					listener.solveCompleted(time);
+				}
+				addExecution(experiment, execution, time, iga.getRunResult());
+			}
+		};
+	}
+	/**
+	 * Queue the record of a generation
+	 * @param experiment
+	 * @param execution
+	 * @param metrics
+	 */
+	public void addGeneration(int experiment, int execution, GenerationMetrics metrics) {
+		add(new GenerationRecord(experiment, execution, metrics));
+	}
+	/**
+	 * Queue the record of an execution
+	 * @param experiment
+	 * @param execution
+	 * @param time of the execution, in nanoseconds
+	 * @param runResult
+	 */
+	public void addExecution(int experiment, int execution, long time, RunResult runResult) {
+		add(new ExecutionRecord(experiment, execution, time, runResult));
+	}
+	/**
+	 * Queue a record, waiting while the queue is full. If the solver is interrupted meanwhile the
+	 * record is dropped and counted (see {@link #getNumberOfDroppedRecords()}), and close reports it.
+	 * @param record
+	 */
+	private void add(Record record) {
+		closeLock.readLock().lock();
+		try{
+			if(closed){
+				throw new IllegalStateException("The results sink is closed");
+			}
+			records.put(record);
+		}
+		catch(InterruptedException e){
+			droppedRecords.incrementAndGet();
+			Thread.currentThread().interrupt();
+		}
+		finally{
+			closeLock.readLock().unlock();
+		}
+	}
+	/**
+	 *
+	 * @return The number of records dropped because their solver was interrupted while the queue was full
+	 */
+	public int getNumberOfDroppedRecords() {
+		return droppedRecords.get();
+	}
+	/**
+	 * Write the queued records until close. After an error, of the file or of the encoding, the
+	 * records are still taken, and dropped, so the solvers do not wait.
+	 */
+	private void write() {
+		try{
+			Record record;
+
+			while((record = records.take()) != END){
+				try{
+					encode(record);
+					while((record = records.peek()) != null && record != END){
+						encode(records.poll());
+					}
+					if(failure == null){
+						flush();
+					}
+				}
+				catch(IOException e){
+					failure = e;
+				}
+				catch(Throwable e){
+					failure = new IOException("Results sink writer failed", e);
+				}
+			}
+			if(failure == null){
+				writeBlocks();
+				flush();
+				channel.force(false);
+			}
+		}
+		catch(InterruptedException e){
+			failure = new IOException("Results sink writer interrupted", e);
+		}
+		catch(IOException e){
+			failure = e;
+		}
+		catch(Throwable e){
+			failure = new IOException("Results sink writer failed", e);
+		}
+	}
+	/**
+	 * Encode a record in the buffer, or in its block for the binary format
+	 * @param record
+	 * @throws IOException
+	 */
+	private void encode(Record record) throws IOException {
+		if(failure != null){
+			return;
+		}
+		try{
+			if(format == Format.JSON_LINES){
+				json.setLength(0);
+				record.appendJson(json);
+				reserve(json.length());
+				//The records are ASCII
+				for(int i = 0; i <= json.length() - 1; i++){
+					buffer.put((byte) json.charAt(i));
+				}
+			}
+			else if(record instanceof GenerationRecord){
+				generationBlock[generationBlockSize++] = (GenerationRecord) record;
+				if(generationBlockSize == BLOCK_SIZE){
+					writeGenerationBlock();
+				}
+			}
+			else{
+				executionBlock[executionBlockSize++] = (ExecutionRecord) record;
+				if(executionBlockSize == BLOCK_SIZE){
+					writeExecutionBlock();
+				}
+			}
+		}
+		catch(IOException e){
+			failure = e;
+		}
+	}
+	/**
+	 * Encode the blocks not yet full, at the end
+	 * @throws IOException
+	 */
+	private void writeBlocks() throws IOException {
+		if(generationBlockSize > 0){
+			writeGenerationBlock();
+		}
+		if(executionBlockSize > 0){
+			writeExecutionBlock();
+		}
+	}
+	private void writeGenerationBlock() throws IOException {
+		int n = generationBlockSize;
+		int length = n * (3 * 4 + 8 + 8 * GenerationMetrics.Phase.values().length + 4 + 3 * 8 + 2 * 8);
+
+		reserve(9 + length);
+		buffer.put(GENERATION);
+		buffer.putInt(n);
+		buffer.putInt(length);
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(generationBlock[i].experiment);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(generationBlock[i].execution);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(generationBlock[i].generation);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putLong(generationBlock[i].generationTime);
+		}
+		for(int p = 0; p <= GenerationMetrics.Phase.values().length - 1; p++){
+			for(int i = 0; i <= n - 1; i++){
+				buffer.putLong(generationBlock[i].phaseTimes[p]);
+			}
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(generationBlock[i].humanEvaluations);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putLong(generationBlock[i].predictions);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putLong(generationBlock[i].modelPredictions);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putLong(generationBlock[i].allocatedBytes);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putDouble(generationBlock[i].bestFitness);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putDouble(generationBlock[i].meanFitness);
+		}
+		Arrays.fill(generationBlock, 0, n, null);
+		generationBlockSize = 0;
+	}
+	private void writeExecutionBlock() throws IOException {
+		int n = executionBlockSize;
+		int length = n * (2 * 4 + 8 + 4 + 2 * 8 + 1 + 4);
+
+		for(int i = 0; i <= n - 1; i++){
+			length += 8 * Genotype.getNumberOfWords(executionBlock[i].runResult.getNumberOfRequirements());
+		}
+		reserve(9 + length);
+		buffer.put(EXECUTION);
+		buffer.putInt(n);
+		buffer.putInt(length);
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(executionBlock[i].experiment);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(executionBlock[i].execution);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putLong(executionBlock[i].time);
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(executionBlock[i].runResult.getNumberOfRequirements());
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putDouble(executionBlock[i].runResult.getBestIndividualScore());
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putDouble(executionBlock[i].runResult.getMeanRelativeAbsoluteError());
+		}
+		for(int i = 0; i <= n - 1; i++){
+			InteractiveGeneticAlgorithm.StoppingReason stoppingReason = executionBlock[i].runResult.getStoppingReason();
+
+			buffer.put(stoppingReason == null ? -1 : (byte) stoppingReason.ordinal());
+		}
+		for(int i = 0; i <= n - 1; i++){
+			buffer.putInt(executionBlock[i].runResult.getNumberOfGenerations());
+		}
+		for(int i = 0; i <= n - 1; i++){
+			long[] bestIndividual = executionBlock[i].runResult.getPackedBestIndividual();
+			int words = Genotype.getNumberOfWords(executionBlock[i].runResult.getNumberOfRequirements());
+
+			for(int w = 0; w <= words - 1; w++){
+				buffer.putLong(bestIndividual[w]);
+			}
+		}
+		Arrays.fill(executionBlock, 0, n, null);
+		executionBlockSize = 0;
+	}
+	/**
+	 * Make room for the given number of bytes in the buffer, writing it or growing it
+	 * @param length
+	 * @throws IOException
+	 */
+	private void reserve(int length) throws IOException {
+		if(buffer.remaining() < length){
+			flush();
+			if(buffer.capacity() < length){
+				buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(length) << 1);
+			}
+		}
+	}
+	/**
+	 * Write the buffer to the file
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+	/**
+	 *
+	 * @param json
+	 * @param value
+	 */
+	private static void appendNumber(StringBuilder json, double value) {
+		if(Double.isNaN(value) || Double.isInfinite(value)){
+			json.append("null");
+		}
+		else{
+			json.append(value);
+		}
+	}
+	/**
+	 * Write the queued records, force them to the disk and close the file. The records added afterwards are rejected.
+	 * @throws IOException if the records could not be written, or some were dropped
+	 */
+	@Override
+	public void close() throws IOException {
+		//Waits for the records being queued, the writer is still taking them
+		closeLock.writeLock().lock();
+		try{
+			if(closed){
+				return;
+			}
+			closed = true;
+		}
+		finally{
+			closeLock.writeLock().unlock();
+		}
+		try{
+			try{
+				records.put(END);
+				writer.join();
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while closing the results sink", e);
+			}
+			finally{
+				channel.close();
+			}
+			if(failure != null){
+				throw failure;
+			}
+			if(droppedRecords.get() > 0){
+				throw new IOException(droppedRecords.get() + " records were dropped by interrupted solvers");
+			}
+		}
+		finally{
+			try{
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			}
+			catch(IllegalStateException e){
+				//The JVM is shutting down, the hook is running
+			}
+		}
+	}
+}
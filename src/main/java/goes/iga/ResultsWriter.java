@@ -2,9 +2,54 @@ package goes.iga;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+/**
+ *
+ * This class aggregates the results of the executions of an experiment as they finish: the mean and
+ * the standard deviation of the score and of the similarity of the best solutions, and the mean of the
+ * mean relative absolute error, are updated in one pass (Welford), so no result is kept and any number
+ * of executions is aggregated in constant memory.
+ *
+ */
 public class ResultsWriter {
 	/**
-	 * Stores a set Of results given by the evaluations
+	 * Mean and standard deviation of values added one at a time, updated in one pass (Welford)
+	 */
+	static final class Statistics {
+		private long count;
+		private double mean;
+		/**
+		 * Sum of the squared deviances from the mean
+		 */
+		private double m2;
+		void add(double value) {
+			double deviance = value - mean;
+
+			count++;
+			mean += deviance / count;
+			m2 += deviance * (value - mean);
+		}
+		void reset() {
+			count = 0;
+			mean = 0;
+			m2 = 0;
+		}
+		long getCount() {
+			return count;
+		}
+		double getMean() {
+			return count == 0 ? Double.NaN : mean;
+		}
+		/**
+		 *
+		 * @return The standard deviation of the population of values
+		 */
+		double getStandardDeviation() {
+			return count == 0 ? Double.NaN : Math.sqrt(m2 / count);
+		}
+	}
+	/**
+	 * Stores the set of results given by {@link #setResults(ArrayList, HumanSimulator)}, null if
+	 * they are added one at a time
 	 */
 	ArrayList <HashMap<String, String>> listOfResults;
 	/**
@@ -12,168 +57,127 @@ public class ResultsWriter {
 	 */
 	HumanSimulator simulator;
 	/**
-	 *
-	 * @param listOfResults
-	 * @param simulator
+	 * Score and similarity of the best solutions, and mean relative absolute error of the models
 	 */
-	public void setResults(ArrayList <HashMap<String, String>> listOfResults, HumanSimulator simulator) {
-		this.listOfResults = listOfResults;
-		this.simulator = simulator;
-	}
+	private final Statistics scores = new Statistics();
+	private final Statistics similarities = new Statistics();
+	private final Statistics meanRelativeAbsoluteErrors = new Statistics();
 	/**
-	 * Write results
+	 * Constructor of a writer whose results are given by {@link #setResults(ArrayList, HumanSimulator)}
 	 */
-	public void writeResults(){
-		System.out.println("Number of executions: " + listOfResults.size());
-		System.out.println("Average of Similarities: " + getSimilaritiesStatistics());
-		System.out.println("Score: " + getIndividualsAverageScore() + " +/- " + getStandardDeviation(true));
-		System.out.println("Mean Relative Absolute Error: "+ getAverageMeanRelativeAbsoluteError()+"%");
+	public ResultsWriter() {
 	}
 	/**
-	 *
-	 * @return Average Mean Relative Absolute Error
+	 * Constructor of a writer whose results are added one at a time
+	 * @param simulator the one of the experiment, whose target solution gives the similarities
 	 */
-	private double getAverageMeanRelativeAbsoluteError() {
-		double averageError = 0;
-		for (int i = 0; i < listOfResults.size(); i++) {
-			averageError += Double.parseDouble(listOfResults.get(i).get("meanRelativeAbsoluteError"));
-		}
-		return averageError/listOfResults.size();
+	public ResultsWriter(HumanSimulator simulator) {
+		this.simulator = simulator;
 	}
-
-
 	/**
-	 *
-	 * @return Mean Number Of Similarities of All solutions in List of Results
+	 * Replace the aggregated results with the given ones
+	 * @param listOfResults
+	 * @param simulator
 	 */
-	public double getSimilaritiesStatistics(){
-		HashMap<String, String> results = null;
-		double meanNumberOfSimilaritiesInIndividual = 0;
+	public synchronized void setResults(ArrayList <HashMap<String, String>> listOfResults, HumanSimulator simulator) {
+		long[][] individuals = new long[listOfResults.size()][];
+		int[] numberOfSimilarities = new int[individuals.length];
+		RunResult[] runResults = new RunResult[individuals.length];
 
-		for(int i = 0; i <= listOfResults.size() - 1; i++){
-			results = listOfResults.get(i);
-			meanNumberOfSimilaritiesInIndividual += simulator.getNumberOfSimilaritiesInIndividual(getIndividual(results.get("bestIndividual")));
+		this.listOfResults = listOfResults;
+		this.simulator = simulator;
+		scores.reset();
+		similarities.reset();
+		meanRelativeAbsoluteErrors.reset();
+
+		//The similarities are counted in one batch
+		for(int i = 0; i <= individuals.length - 1; i++){
+			runResults[i] = RunResult.fromMap(listOfResults.get(i));
+			individuals[i] = runResults[i].getPackedBestIndividual();
+		}
+		simulator.getNumberOfSimilarities(individuals, numberOfSimilarities);
+		for(int i = 0; i <= individuals.length - 1; i++){
+			add(runResults[i], numberOfSimilarities[i]);
 		}
-		meanNumberOfSimilaritiesInIndividual = (meanNumberOfSimilaritiesInIndividual/listOfResults.size())/simulator.getNumberOfRequirements();
-
-		return meanNumberOfSimilaritiesInIndividual;
+	}
+	/**
+	 * Aggregate the results of an execution
+	 * @param runResult
+	 */
+	public synchronized void add(RunResult runResult) {
+		add(runResult, simulator.getNumberOfSimilaritiesInIndividual(runResult.getPackedBestIndividual()));
+	}
+	private void add(RunResult runResult, int numberOfSimilarities) {
+		scores.add(runResult.getBestIndividualScore());
+		similarities.add((double) numberOfSimilarities / simulator.getNumberOfRequirements());
+		meanRelativeAbsoluteErrors.add(runResult.getMeanRelativeAbsoluteError());
 	}
 	/**
 	 *
-	 * @return The respective similarity of each solution in list of results
+	 * @return The number of executions aggregated
 	 */
-	public double[] getIndividualsSimilarities(){
-		HashMap<String, String> results = null;
-		double[] individualSimilarities = new double[listOfResults.size()];
-
-		for(int i = 0; i <= listOfResults.size() - 1; i++){
-			results = listOfResults.get(i);
-			individualSimilarities[i] =	(double) simulator.getNumberOfSimilaritiesInIndividual(getIndividual(results.get("bestIndividual")))/simulator.getNumberOfRequirements();
-		}
-
-		return individualSimilarities;
+	public synchronized long getNumberOfExecutions() {
+		return scores.getCount();
 	}
 	/**
-	 * Convert a string individual in a vector of integers
-	 * @param stringIndividual
-	 * @return
+	 * Write results
 	 */
-	private int[] getIndividual(String stringIndividual){
-		String[] values = stringIndividual.split(" ");
-		int[] individual = new int[values.length];
-
-		for(int i = 0; i <= individual.length - 1; i++){
-			individual[i] = Integer.parseInt(values[i]);
-		}
-
-		return individual;
+	public synchronized void writeResults(){
+		System.out.println("Number of executions: " + getNumberOfExecutions());
+		System.out.println("Average of Similarities: " + getSimilaritiesStatistics());
+		System.out.println("Score: " + getIndividualsAverageScore() + " +/- " + getStandardDeviation(true));
+		System.out.println("Mean Relative Absolute Error: "+ getAverageMeanRelativeAbsoluteError()+"%");
 	}
 	/**
 	 *
-	 * @return The Individual Average Score in list of results
+	 * @return Average Mean Relative Absolute Error
 	 */
-	public double getIndividualsAverageScore(){
-		double[] individualsScores = getIndividualsScores();
-		double scoresSum = 0;
-
-		for(int i = 0; i <= individualsScores.length - 1; i++){
-			scoresSum += individualsScores[i];
-		}
-		scoresSum = scoresSum / individualsScores.length;
-
-		return scoresSum;
+	private synchronized double getAverageMeanRelativeAbsoluteError() {
+		return meanRelativeAbsoluteErrors.getMean();
 	}
 	/**
 	 *
-	 * @return A vector containing scores of all evaluations
+	 * @return Mean Number Of Similarities of All solutions, divided by the number of requirements
 	 */
-	private double[] getIndividualsScores(){
-		double[] individualsScores = new double[listOfResults.size()];
-
-		for(int i = 0; i <= individualsScores.length - 1; i++){
-			individualsScores[i] = Double.parseDouble(listOfResults.get(i).get("bestIndividualScore"));
-		}
-
-		return individualsScores;
+	public synchronized double getSimilaritiesStatistics(){
+		return similarities.getMean();
 	}
-
-
 	/**
 	 *
-	 * @param measure (If true return the standard deviation of the scores, else return the one of the Similarities)
-	 * @return The standard Deviation
+	 * @return The respective similarity of each solution in list of results, only kept when they are
+	 * given by {@link #setResults(ArrayList, HumanSimulator)}
 	 */
-	public double getStandardDeviation(boolean measure) {
-		double standardDeviation;
-
-		if(measure) { // Score
-			standardDeviation = getStandardDeviation(getIndividualsAverageScore(), getIndividualsScores());
-		}else { // Similarity
-			standardDeviation = getStandardDeviation(getSimilaritiesStatistics(), getIndividualsSimilarities());
+	public synchronized double[] getIndividualsSimilarities(){
+		if(listOfResults == null){
+			throw new IllegalStateException("The results added one at a time are not kept");
 		}
+		long[][] individuals = new long[listOfResults.size()][];
+		int[] numberOfSimilarities = new int[individuals.length];
+		double[] individualSimilarities = new double[individuals.length];
 
-		return standardDeviation;
-	}
-	/**
-	 * Given a set of results this function return the standard Deviation.
-	 * @param average
-	 * @param values
-	 * @return
-	 */
-	private double getStandardDeviation(double average, double[] values){
-	      double[] deviances = getDeviances(average, values);
-	      double variance = getVariance(deviances);
+		for(int i = 0; i <= individuals.length - 1; i++){
+			individuals[i] = Genotype.fromString(listOfResults.get(i).get("bestIndividual"));
+		}
+		simulator.getNumberOfSimilarities(individuals, numberOfSimilarities);
+		for(int i = 0; i <= individuals.length - 1; i++){
+			individualSimilarities[i] = (double) numberOfSimilarities[i]/simulator.getNumberOfRequirements();
+		}
 
-	      return Math.sqrt(variance);
+		return individualSimilarities;
 	}
-
 	/**
 	 *
-	 * @param mean
-	 * @param values
-	 * @return deviances of the fiven numerical vector
+	 * @return The Individual Average Score in list of results
 	 */
-	private double[] getDeviances(double mean, double[] values){
-		double[] deviances = new double[values.length];
-
-		for(int i = 0; i <= deviances.length - 1; i++){
-			deviances[i] = mean - values[i];
-		}
-
-		return deviances;
+	public synchronized double getIndividualsAverageScore(){
+		return scores.getMean();
 	}
 	/**
 	 *
-	 * @param deviances
-	 * @return Variances
+	 * @param measure (If true return the standard deviation of the scores, else return the one of the Similarities)
+	 * @return The standard Deviation
 	 */
-	private double getVariance(double[] deviances){
-		double quadraticDeviancesSum = 0;
-
-		for(int i = 0; i <= deviances.length - 1; i++){
-			quadraticDeviancesSum += Math.pow(deviances[i], 2);
-		}
-
-		return quadraticDeviancesSum / deviances.length;
+	public synchronized double getStandardDeviation(boolean measure) {
+		return measure ? scores.getStandardDeviation() : similarities.getStandardDeviation();
 	}
 }
@@ -0,0 +1,213 @@
+package goes.iga;
+import java.util.Arrays;
+/**
+ *
+ * Surrogate given by a ridge regression over the requirements included in the solution.
+ * It is solved in its dual form, a system of (number of samples) equations whose matrix is
+ * the Gram matrix of the solutions, computed with bit counts over the packed words, so the
+ * training cost grows with the number of samples and not with the square of the number of
+ * requirements. The weight of each requirement is then recovered, and a prediction is the
+ * bias plus the sum of the weights of the included requirements.
+ * The bias is not regularized: it is the multiplier of the constraint that the dual weights sum
+ * to 0, so the system is (K + lambda I) alpha + bias 1 = y. The Cholesky factor of K + lambda I
+ * is kept and an update only adds the row of the new sample, so adding a sample to m samples
+ * costs O(m^2) instead of the O(m^3) of a training.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class RidgeSurrogate implements Surrogate {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Stores the number of requirements
+	 */
+	private final int numberOfRequirements;
+	/**
+	 * Regularization weight
+	 */
+	private final double lambda;
+	/**
+	 * Stored samples (copies) and their evaluations
+	 */
+	private long[][] individuals = new long[0][];
+	private double[] evaluations = new double[0];
+	private int numberOfSamples;
+	/**
+	 * Lower Cholesky factor of K + lambda I, with K the Gram matrix of the samples: row i
+	 * has i + 1 values and is not changed once computed
+	 */
+	private double[][] cholesky = new double[0][];
+	/**
+	 * Weight of each requirement, and bias
+	 */
+	private double[] weights;
+	private double bias;
+	/**
+	 * Constructor
+	 * @param numberOfRequirements
+	 * @param lambda regularization weight
+	 */
+	public RidgeSurrogate(int numberOfRequirements, double lambda) {
+		this.numberOfRequirements = numberOfRequirements;
+		this.lambda = lambda;
+		this.weights = new double[numberOfRequirements];
+	}
+	/**
+	 * Constructor with regularization weight 1
+	 * @param numberOfRequirements
+	 */
+	public RidgeSurrogate(int numberOfRequirements) {
+		this(numberOfRequirements, 1);
+	}
+
+	@Override
+	public void train(long[][] individuals, double[] evaluations, int numberOfSamples) throws Exception {
+		this.numberOfSamples = 0;
+		for(int i = 0; i <= numberOfSamples - 1; i++){
+			addSample(individuals[i], evaluations[i]);
+		}
+		fit();
+	}
+
+	@Override
+	public void update(long[] individual, double evaluation) throws Exception {
+		addSample(individual, evaluation);
+		fit();
+	}
+	/**
+	 * Store a copy of a sample and add its row to the Cholesky factor
+	 * @param individual
+	 * @param evaluation
+	 */
+	private void addSample(long[] individual, double evaluation) {
+		int m = numberOfSamples;
+		double[] row = new double[m + 1];
+		double diagonal = Genotype.getNumberOfIncludedRequirements(individual) + lambda;
+
+		if(m == individuals.length){
+			int capacity = Math.max(16, 2 * m);
+			individuals = Arrays.copyOf(individuals, capacity);
+			evaluations = Arrays.copyOf(evaluations, capacity);
+			cholesky = Arrays.copyOf(cholesky, capacity);
+		}
+
+		//Forward substitution of the new column of the Gram matrix
+		for(int k = 0; k <= m - 1; k++){
+			double value = getNumberOfSharedRequirements(individual, individuals[k]);
+			double[] other = cholesky[k];
+
+			for(int j = 0; j <= k - 1; j++){
+				value -= row[j] * other[j];
+			}
+			row[k] = value / other[k];
+			diagonal -= row[k] * row[k];
+		}
+		row[m] = Math.sqrt(Math.max(diagonal, 1e-12));
+
+		individuals[m] = individual.clone();
+		evaluations[m] = evaluation;
+		cholesky[m] = row;
+		numberOfSamples++;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @param other
+	 * @return The number of requirements included in both solutions
+	 */
+	private static int getNumberOfSharedRequirements(long[] individual, long[] other) {
+		int sharedRequirements = 0;
+
+		for(int w = 0; w <= individual.length - 1; w++){
+			sharedRequirements += Long.bitCount(individual[w] & other[w]);
+		}
+		return sharedRequirements;
+	}
+	/**
+	 * Solve the system with the bias: with u and v the solutions of (K + lambda I) u = y and
+	 * (K + lambda I) v = 1, bias = sum(u) / sum(v) and alpha = u - bias v. Then recover the
+	 * weights w = sum alpha_i x_i.
+	 */
+	private void fit() {
+		int m = numberOfSamples;
+		double[] u = Arrays.copyOf(evaluations, m);
+		double[] v = new double[m];
+		double sumU = 0;
+		double sumV = 0;
+
+		Arrays.fill(weights, 0);
+		if(m == 0){
+			bias = 0;
+			return;
+		}
+
+		Arrays.fill(v, 1);
+		solve(cholesky, u, m);
+		solve(cholesky, v, m);
+		for(int i = 0; i <= m - 1; i++){
+			sumU += u[i];
+			sumV += v[i];
+		}
+		bias = sumU / sumV;
+
+		for(int i = 0; i <= m - 1; i++){
+			double alpha = u[i] - bias * v[i];
+			long[] individual = individuals[i];
+
+			for(int w = 0; w <= individual.length - 1; w++){
+				long word = individual[w];
+
+				while(word != 0){
+					weights[w * Genotype.WORD_SIZE + Long.numberOfTrailingZeros(word)] += alpha;
+					word &= word - 1;
+				}
+			}
+		}
+	}
+	/**
+	 * Solve L L^T x = b by forward and backward substitution
+	 * @param cholesky lower factor L, row i with i + 1 values
+	 * @param vector right side b, overwritten by the solution
+	 * @param m size of the system
+	 */
+	static void solve(double[][] cholesky, double[] vector, int m) {
+		for(int i = 0; i <= m - 1; i++){
+			double[] row = cholesky[i];
+			double value = vector[i];
+
+			for(int k = 0; k <= i - 1; k++){
+				value -= row[k] * vector[k];
+			}
+			vector[i] = value / row[i];
+		}
+
+		for(int i = m - 1; i >= 0; i--){
+			double value = vector[i];
+
+			for(int k = i + 1; k <= m - 1; k++){
+				value -= cholesky[k][i] * vector[k];
+			}
+			vector[i] = value / cholesky[i][i];
+		}
+	}
+
+	@Override
+	public double predict(long[] individual) {
+		return bias + Genotype.getWeightedSum(individual, weights);
+	}
+
+	@Override
+	public Surrogate copy() {
+		RidgeSurrogate copy = new RidgeSurrogate(numberOfRequirements, lambda);
+
+		copy.individuals = Arrays.copyOf(individuals, individuals.length);
+		copy.evaluations = evaluations.clone();
+		copy.numberOfSamples = numberOfSamples;
+		//The rows of the factor are never changed
+		copy.cholesky = Arrays.copyOf(cholesky, cholesky.length);
+		copy.weights = weights.clone();
+		copy.bias = bias;
+		return copy;
+	}
+}
@@ -0,0 +1,105 @@
+package goes.iga;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ *
+ * This class stores the results of an execution of the solver as primitives: the best solution
+ * packed in words (see {@link Genotype}), its score, the mean relative absolute error of the
+ * learning model, the stopping reason and the number of generations. It is what the aggregation of
+ * many executions reads (see {@link ResultsWriter#add(RunResult)}), so no value is formatted and
+ * parsed again; {@link #toMap()} gives the results as returned by {@link InteractiveGeneticAlgorithm#solve()}.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public final class RunResult {
+	/**
+	 * Best solution, packed
+	 */
+	private final long[] bestIndividual;
+	private final int numberOfRequirements;
+	private final double bestIndividualScore;
+	private final double meanRelativeAbsoluteError;
+	private final InteractiveGeneticAlgorithm.StoppingReason stoppingReason;
+	private final int numberOfGenerations;
+	/**
+	 * Constructor
+	 * @param bestIndividual packed, not changed afterwards
+	 * @param numberOfRequirements
+	 * @param bestIndividualScore
+	 * @param meanRelativeAbsoluteError
+	 * @param stoppingReason
+	 * @param numberOfGenerations
+	 */
+	RunResult(long[] bestIndividual, int numberOfRequirements, double bestIndividualScore, double meanRelativeAbsoluteError,
+			InteractiveGeneticAlgorithm.StoppingReason stoppingReason, int numberOfGenerations) {
+		this.bestIndividual = bestIndividual;
+		this.numberOfRequirements = numberOfRequirements;
+		this.bestIndividualScore = bestIndividualScore;
+		this.meanRelativeAbsoluteError = meanRelativeAbsoluteError;
+		this.stoppingReason = stoppingReason;
+		this.numberOfGenerations = numberOfGenerations;
+	}
+	/**
+	 *
+	 * @return A copy of the best solution, packed
+	 */
+	public long[] getBestIndividual() {
+		return bestIndividual.clone();
+	}
+	/**
+	 *
+	 * @return The best solution, not to be changed
+	 */
+	long[] getPackedBestIndividual() {
+		return bestIndividual;
+	}
+	public int getNumberOfRequirements() {
+		return numberOfRequirements;
+	}
+	public double getBestIndividualScore() {
+		return bestIndividualScore;
+	}
+	public double getMeanRelativeAbsoluteError() {
+		return meanRelativeAbsoluteError;
+	}
+	public InteractiveGeneticAlgorithm.StoppingReason getStoppingReason() {
+		return stoppingReason;
+	}
+	public int getNumberOfGenerations() {
+		return numberOfGenerations;
+	}
+	/**
+	 *
+	 * @return The results by name, as returned by {@link InteractiveGeneticAlgorithm#solve()}
+	 */
+	public HashMap<String, String> toMap() {
+		HashMap<String, String> results = new HashMap<String, String>();
+
+		results.put("bestIndividual", Genotype.toString(bestIndividual, numberOfRequirements));
+		results.put("bestIndividualScore", bestIndividualScore + "");
+		results.put("meanRelativeAbsoluteError", meanRelativeAbsoluteError + "");
+		if(stoppingReason != null){
+			results.put("stoppingReason", stoppingReason.name());
+		}
+		results.put("numberOfGenerations", numberOfGenerations + "");
+		return results;
+	}
+	/**
+	 * Parse the results given by {@link #toMap()}, e.g. those of an island or of a file
+	 * @param results
+	 * @return
+	 */
+	public static RunResult fromMap(Map<String, String> results) {
+		long[] bestIndividual = Genotype.fromString(results.get("bestIndividual"));
+		String stoppingReason = results.get("stoppingReason");
+		String numberOfGenerations = results.get("numberOfGenerations");
+
+		return new RunResult(bestIndividual, (results.get("bestIndividual").length() + 1) / 2,
+				Double.parseDouble(results.get("bestIndividualScore")),
+				Double.parseDouble(results.get("meanRelativeAbsoluteError")),
+				stoppingReason == null ? null : InteractiveGeneticAlgorithm.StoppingReason.valueOf(stoppingReason),
+				numberOfGenerations == null ? 0 : Integer.parseInt(numberOfGenerations));
+	}
+}
@@ -0,0 +1,196 @@
+package goes.iga;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ *
+ * Learning model shared by the islands of an {@link IslandModel}. The human evaluations, drawn from
+ * a single budget by all the islands, are added to one rolling training set, and the model trained
+ * (or updated) with them is published with a new version. The islands never predict with this
+ * model: each one takes a copy of the last published version (see {@link #copyModel()}).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+final class SharedSurrogate {
+	/**
+	 * Notified of the solutions evaluated by the human of this process, e.g. to send them to other processes
+	 */
+	interface SampleListener {
+		void samplesAdded(long[][] individuals, int[] evaluations, int numberOfSamples) throws Exception;
+	}
+	/**
+	 * Model trained with the evaluations of all the islands
+	 */
+	private final Surrogate model;
+	/**
+	 * Human evaluations not granted to any island yet
+	 */
+	private final AtomicInteger remainingEvaluations;
+	/**
+	 * Number of islands, number of evaluations before the first training, generations between
+	 * retrainings (0 disables them) and evaluations at each retraining
+	 */
+	private final int numberOfIslands;
+	private final int numberOfInitialEvaluations;
+	private final int retrainingInterval;
+	private final int evaluationsPerRetraining;
+	/**
+	 * Rolling training set, the oldest solution is replaced first (see {@link InteractiveGeneticAlgorithm})
+	 */
+	private final long[][] trainingIndividuals;
+	private final double[] trainingEvaluations;
+	private int numberOfTrainingSamples;
+	private int numberOfSamplesInModel;
+	/**
+	 * Version of the published model, 0 while it is not trained
+	 */
+	private volatile long version;
+	/**
+	 * Notified of the solutions added by the islands, null if none
+	 */
+	private SampleListener sampleListener;
+	/**
+	 * Constructor
+	 * @param model
+	 * @param numberOfRequirements
+	 * @param numberOfIslands
+	 * @param nSubjectiveEvaluations human evaluations of all the islands
+	 * @param numberOfInitialEvaluations
+	 * @param retrainingInterval
+	 * @param evaluationsPerRetraining
+	 * @param trainingSetCapacity
+	 */
+	SharedSurrogate(Surrogate model, int numberOfRequirements, int numberOfIslands, int nSubjectiveEvaluations,
+			int numberOfInitialEvaluations, int retrainingInterval, int evaluationsPerRetraining, int trainingSetCapacity) {
+		this(model, numberOfRequirements, numberOfIslands, nSubjectiveEvaluations, nSubjectiveEvaluations,
+				numberOfInitialEvaluations, retrainingInterval, evaluationsPerRetraining, trainingSetCapacity);
+	}
+	/**
+	 * Constructor for one of several processes sharing the human evaluations
+	 * @param model
+	 * @param numberOfRequirements
+	 * @param numberOfIslands islands of all the processes
+	 * @param budget human evaluations which the islands of this process can ask
+	 * @param nSubjectiveEvaluations human evaluations of all the processes
+	 * @param numberOfInitialEvaluations
+	 * @param retrainingInterval
+	 * @param evaluationsPerRetraining
+	 * @param trainingSetCapacity
+	 */
+	SharedSurrogate(Surrogate model, int numberOfRequirements, int numberOfIslands, int budget, int nSubjectiveEvaluations,
+			int numberOfInitialEvaluations, int retrainingInterval, int evaluationsPerRetraining, int trainingSetCapacity) {
+		this.model = model;
+		this.numberOfIslands = numberOfIslands;
+		this.remainingEvaluations = new AtomicInteger(budget);
+		this.numberOfInitialEvaluations = retrainingInterval > 0 ? Math.min(numberOfInitialEvaluations, nSubjectiveEvaluations) : nSubjectiveEvaluations;
+		this.retrainingInterval = retrainingInterval;
+		this.evaluationsPerRetraining = evaluationsPerRetraining;
+
+		int capacity = trainingSetCapacity > 0 ? Math.min(trainingSetCapacity, nSubjectiveEvaluations) : nSubjectiveEvaluations;
+		this.trainingIndividuals = new long[capacity][Genotype.getNumberOfWords(numberOfRequirements)];
+		this.trainingEvaluations = new double[capacity];
+	}
+	/**
+	 *
+	 * @param generation
+	 * @return The number of human evaluations an island asks in the given generation
+	 */
+	int getEvaluationsOfGeneration(int generation) {
+		if(generation == 0){
+			return (numberOfInitialEvaluations + numberOfIslands - 1) / numberOfIslands;
+		}
+		if(retrainingInterval > 0 && generation % retrainingInterval == 0){
+			return (evaluationsPerRetraining + numberOfIslands - 1) / numberOfIslands;
+		}
+		return 0;
+	}
+	/**
+	 * Take human evaluations from the budget
+	 * @param numberOfEvaluations wanted
+	 * @return The number of evaluations granted, lower if the budget is running out
+	 */
+	int acquireEvaluations(int numberOfEvaluations) {
+		while(true){
+			int remaining = remainingEvaluations.get();
+			int granted = Math.min(remaining, numberOfEvaluations);
+
+			if(granted <= 0 || remainingEvaluations.compareAndSet(remaining, remaining - granted)){
+				return Math.max(granted, 0);
+			}
+		}
+	}
+	/**
+	 * Give back human evaluations granted but not used
+	 * @param numberOfEvaluations
+	 */
+	void releaseEvaluations(int numberOfEvaluations) {
+		remainingEvaluations.addAndGet(numberOfEvaluations);
+	}
+	/**
+	 * Set the listener notified of the solutions evaluated by the human of this process
+	 * @param sampleListener
+	 */
+	void setSampleListener(SampleListener sampleListener) {
+		this.sampleListener = sampleListener;
+	}
+	/**
+	 * Add solutions evaluated by the human of an island of this process (see {@link #addRemoteSamples(long[][], int[], int)})
+	 * @param individuals
+	 * @param evaluations
+	 * @param numberOfSamples
+	 * @throws Exception
+	 */
+	void addSamples(long[][] individuals, int[] evaluations, int numberOfSamples) throws Exception {
+		addRemoteSamples(individuals, evaluations, numberOfSamples);
+		if(sampleListener != null){
+			sampleListener.samplesAdded(individuals, evaluations, numberOfSamples);
+		}
+	}
+	/**
+	 * Add solutions evaluated by the human to the training set, and train or update the model with
+	 * them once the initial evaluations are given
+	 * @param individuals
+	 * @param evaluations
+	 * @param numberOfSamples
+	 * @throws Exception
+	 */
+	synchronized void addRemoteSamples(long[][] individuals, int[] evaluations, int numberOfSamples) throws Exception {
+		for(int i = 0; i <= numberOfSamples - 1; i++){
+			int position = numberOfTrainingSamples % trainingIndividuals.length;
+
+			Genotype.copy(individuals[i], trainingIndividuals[position]);
+			trainingEvaluations[position] = evaluations[i];
+			numberOfTrainingSamples++;
+		}
+
+		if(numberOfSamplesInModel == 0 && numberOfTrainingSamples < numberOfInitialEvaluations){
+			return;
+		}
+
+		if(numberOfSamplesInModel > 0 && model.isUpdateable() && numberOfTrainingSamples <= trainingIndividuals.length){
+			for(int i = numberOfSamplesInModel; i <= numberOfTrainingSamples - 1; i++){
+				model.update(trainingIndividuals[i], trainingEvaluations[i]);
+			}
+		}
+		else{
+			model.train(trainingIndividuals, trainingEvaluations, Math.min(numberOfTrainingSamples, trainingIndividuals.length));
+		}
+		numberOfSamplesInModel = numberOfTrainingSamples;
+		version++;
+	}
+	/**
+	 *
+	 * @return The version of the published model, 0 while it is not trained
+	 */
+	long getVersion() {
+		return version;
+	}
+	/**
+	 *
+	 * @return A copy of the published model
+	 * @throws Exception
+	 */
+	synchronized Surrogate copyModel() throws Exception {
+		return model.copy();
+	}
+}
@@ -0,0 +1,50 @@
+package goes.iga;
+import java.io.Serializable;
+/**
+ *
+ * A learning model which predicts the subjective evaluation of a packed solution (see {@link Genotype})
+ * and is trained with the solutions evaluated by the human. A model is not thread-safe: each worker
+ * of a {@link PopulationEvaluator} predicts with its own copy. A model is serializable, so it can be
+ * saved with the state of the solver (see {@link InteractiveGeneticAlgorithm#setCheckpoint(java.io.File, int)}).
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public interface Surrogate extends Serializable {
+	/**
+	 * Train the model from scratch with the first numberOfSamples solutions and their evaluations
+	 * @param individuals
+	 * @param evaluations
+	 * @param numberOfSamples
+	 * @throws Exception
+	 */
+	void train(long[][] individuals, double[] evaluations, int numberOfSamples) throws Exception;
+	/**
+	 * Add a solution evaluated after the training to the model
+	 * @param individual
+	 * @param evaluation
+	 * @throws Exception
+	 */
+	void update(long[] individual, double evaluation) throws Exception;
+	/**
+	 *
+	 * @return True if an update costs less than a training (else an update trains the model again)
+	 */
+	default boolean isUpdateable() {
+		return true;
+	}
+	/**
+	 *
+	 * @param individual
+	 * @return The predicted evaluation of the solution
+	 * @throws Exception
+	 */
+	double predict(long[] individual) throws Exception;
+	/**
+	 *
+	 * @return An independent copy of the model, trained in the same way
+	 * @throws Exception
+	 */
+	Surrogate copy() throws Exception;
+}
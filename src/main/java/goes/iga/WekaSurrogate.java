@@ -0,0 +1,98 @@
+package goes.iga;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.UpdateableClassifier;
+import weka.core.Instances;
+/**
+ *
+ * Surrogate backed by a WEKA classifier (e.g. the multilayer perceptron). The solutions are
+ * converted to WEKA instances: the training set is stored in a {@link DataSet} and the
+ * predictions reuse a single instance overwritten in place.
+ * If the classifier is not updateable, an update trains it again with all the solutions.
+ *
+ * @since 10-17-2026
+ * @author --
+ *
+ */
+public class WekaSurrogate implements Surrogate {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Stores the number of requirements
+	 */
+	private final int numberOfRequirements;
+	/**
+	 * WEKA classifier
+	 */
+	private final Classifier classifier;
+	/**
+	 * Solutions the classifier was trained with
+	 */
+	private DataSet dataSet;
+	/**
+	 * Instance reused by the predictions
+	 */
+	private final DataSet.ReusableInstance instance;
+	/**
+	 * Constructor
+	 * @param classifier
+	 * @param numberOfRequirements
+	 */
+	public WekaSurrogate(Classifier classifier, int numberOfRequirements) {
+		this.classifier = classifier;
+		this.numberOfRequirements = numberOfRequirements;
+		this.instance = new DataSet.ReusableInstance(numberOfRequirements);
+	}
+	/**
+	 *
+	 * @return the WEKA classifier
+	 */
+	public Classifier getClassifier() {
+		return classifier;
+	}
+
+	@Override
+	public void train(long[][] individuals, double[] evaluations, int numberOfSamples) throws Exception {
+		dataSet = new DataSet(numberOfSamples, numberOfRequirements);
+
+		for(int i = 0; i <= numberOfSamples - 1; i++){
+			dataSet.insert(individuals[i], evaluations[i]);
+		}
+
+		classifier.buildClassifier(dataSet.getDataSet());
+	}
+
+	@Override
+	public void update(long[] individual, double evaluation) throws Exception {
+		if(dataSet == null){
+			dataSet = new DataSet(1, numberOfRequirements);
+		}
+		dataSet.insert(individual, evaluation);
+
+		if(classifier instanceof UpdateableClassifier){
+			Instances data = dataSet.getDataSet();
+			((UpdateableClassifier) classifier).updateClassifier(data.instance(data.numInstances() - 1));
+		}
+		else{
+			classifier.buildClassifier(dataSet.getDataSet());
+		}
+	}
+
+	@Override
+	public boolean isUpdateable() {
+		return classifier instanceof UpdateableClassifier;
+	}
+
+	@Override
+	public double predict(long[] individual) throws Exception {
+		instance.load(individual);
+		return classifier.classifyInstance(instance);
+	}
+
+	@Override
+	public Surrogate copy() throws Exception {
+		WekaSurrogate copy = new WekaSurrogate(AbstractClassifier.makeCopy(classifier), numberOfRequirements);
+
+		copy.dataSet = dataSet == null ? null : new DataSet(dataSet);
+		return copy;
+	}
+}